@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building Huffman codes and the entropy from the bundled alphabet files, which hold every key with its
+ * frequency such as "a=51,b=22".
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 8.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlphabetBenchmark{
+    @Param({"problem2Alphabet.txt", "problem4Alphabet.txt", "problem7AlphabetA.txt", "problem7AlphabetB.txt", "problem8Alphabet.txt",
+            "problem9Alphabet.txt", "problem10Alphabet.txt", "problem11Alphabet.txt",
+            "problem13InputA.txt", "problem13InputB.txt", "problem13InputC.txt", "problem13InputD.txt",
+            "problem14Danish.txt", "problem14English.txt", "problem14Finnish.txt", "problem14French.txt", "problem14German.txt",
+            "problem14Icelandic.txt", "problem14Polish.txt", "problem14Russian.txt", "problem14Spanish.txt", "problem14Swedish.txt",
+            "problem15EnglishAlphabet.txt", "problem15Binomials.txt"})
+    public String corpus;
+
+    private String fileName;
+    private Object huffman;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException{
+        fileName = Corpora.resolve(corpus);
+
+        huffman = CoreApi.newHuffman();
+        CoreApi.setupDictionaryFromFile(huffman, fileName, false);
+        CoreApi.setupHuffmanCodes(huffman);
+    }
+
+    @Benchmark
+    public Object setupDictionaryFromFile(){
+        Object result = CoreApi.newHuffman();
+        CoreApi.setupDictionaryFromFile(result, fileName, false);
+        return result;
+    }
+
+    @Benchmark
+    public Object setupHuffmanCodes(){
+        CoreApi.setupHuffmanCodes(huffman);
+        return huffman;
+    }
+
+    @Benchmark
+    public double calculateTotalAlphabetEntropy(){
+        return CoreApi.calculateTotalAlphabetEntropy(huffman, false);
+    }
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks <Code>findBestBinomials()</Code> with the bundled English alphabet and binomials, both for the single best
+ * binomial and for all binomials that together lower the entropy.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 8.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinomialBenchmark{
+    @Param({"problem15EnglishAlphabet.txt"})
+    public String alphabet;
+
+    @Param({"problem15Binomials.txt"})
+    public String binomials;
+
+    @Param({"true", "false"})
+    public boolean findBestBinomial;
+
+    private String alphabetFile;
+    private String binomialFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException{
+        alphabetFile = Corpora.resolve(alphabet);
+        binomialFile = Corpora.resolve(binomials);
+    }
+
+    @Benchmark
+    public ArrayList<String> findBestBinomials(){
+        // "findBestBinomials()" rebuilds the dictionary from "alphabetFile" itself, so one object could be reused, but a new one keeps every call the same
+        return CoreApi.findBestBinomials(CoreApi.newHuffman(), alphabetFile, binomialFile, findBestBinomial, false);
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building Huffman codes from raw text and encoding and decoding that text with them, for the bundled text files
+ * and for generated text (see <Code>Corpora</Code>).
+ * <p>
+ * <Code>encodeInput()</Code> wraps its output in lines, which <Code>decodeInput()</Code> stops at, so the input of the decoding
+ * benchmark is the encoded text without line breaks.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 8.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"}) // The 100MB corpora are encoded as one "0" or "1" character per bit
+public class CodecBenchmark{
+    @Param({"problem2InputA.txt", "problem2InputB.txt", "problem10TextInput.txt", "problem11InputA.txt", "problem11InputB.txt", "problem11InputC.txt",
+            "uniform-1KB", "uniform-1MB", "uniform-100MB",
+            "zipf-1KB", "zipf-1MB", "zipf-100MB",
+            "skewed-1KB", "skewed-1MB", "skewed-100MB"})
+    public String corpus;
+
+    private String fileName;
+    private String input;
+    private String encodedInput;
+    private Object huffman;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException{
+        fileName = Corpora.resolve(corpus);
+        input = Corpora.read(fileName);
+
+        huffman = CoreApi.newHuffman();
+        CoreApi.setupDictionaryFromFile(huffman, fileName, true);
+        CoreApi.setupHuffmanCodes(huffman);
+
+        StringBuilder encoded = CoreApi.encodeInput(huffman, input);
+        int length = 0;
+        for(int i = 0; i < encoded.length(); i++){
+            char bit = encoded.charAt(i);
+            if(bit == '0' || bit == '1'){
+                encoded.setCharAt(length++, bit);
+            }
+        }
+        encoded.setLength(length);
+        encodedInput = encoded.toString();
+    }
+
+    @Benchmark
+    public Object setupDictionaryFromFile(){
+        Object result = CoreApi.newHuffman();
+        CoreApi.setupDictionaryFromFile(result, fileName, true);
+        return result;
+    }
+
+    @Benchmark
+    public Object setupHuffmanCodes(){
+        CoreApi.setupHuffmanCodes(huffman);
+        return huffman;
+    }
+
+    @Benchmark
+    public StringBuilder encodeInput(){
+        return CoreApi.encodeInput(huffman, input);
+    }
+
+    @Benchmark
+    public StringBuilder decodeInput(){
+        return CoreApi.decodeInput(huffman, encodedInput);
+    }
+
+    @Benchmark
+    public double calculateTotalAlphabetEntropy(){
+        return CoreApi.calculateTotalAlphabetEntropy(huffman, false);
+    }
+}
@@ -0,0 +1,147 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+
+/**
+ * Calls the methods of <Code>Huffman</Code> that are benchmarked. The classes of the project are in the default package,
+ * which a class in a named package cannot refer to, while JMH does not accept benchmarks in the default package. Because of
+ * this every method is looked up once by name and kept in a <Code>static final MethodHandle</Code>, which the JIT compiler
+ * treats as a constant and inlines like a direct call.
+ * <p>
+ * A <Code>Huffman</Code> object is passed around as an <Code>Object</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 8.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+*/
+
+final class CoreApi{
+    private static final MethodHandle NEW_HUFFMAN;
+    private static final MethodHandle SETUP_DICTIONARY_FROM_FILE;
+    private static final MethodHandle SETUP_HUFFMAN_CODES;
+    private static final MethodHandle ENCODE_INPUT;
+    private static final MethodHandle DECODE_INPUT;
+    private static final MethodHandle CALCULATE_TOTAL_ALPHABET_ENTROPY;
+    private static final MethodHandle FIND_BEST_BINOMIALS;
+
+    static{
+        try{
+            Class<?> huffman = Class.forName("Huffman");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            NEW_HUFFMAN = lookup.findConstructor(huffman, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            SETUP_DICTIONARY_FROM_FILE = findVirtual(lookup, huffman, "setupDictionaryFromFile", void.class, String.class, boolean.class);
+            SETUP_HUFFMAN_CODES = findVirtual(lookup, huffman, "setupHuffmanCodes", void.class);
+            ENCODE_INPUT = findVirtual(lookup, huffman, "encodeInput", StringBuilder.class, String.class);
+            DECODE_INPUT = findVirtual(lookup, huffman, "decodeInput", StringBuilder.class, String.class);
+            CALCULATE_TOTAL_ALPHABET_ENTROPY = findVirtual(lookup, huffman, "calculateTotalAlphabetEntropy", double.class, boolean.class);
+            FIND_BEST_BINOMIALS = findVirtual(lookup, huffman, "findBestBinomials", ArrayList.class, String.class, String.class, boolean.class, boolean.class);
+        }catch (ReflectiveOperationException e){
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private CoreApi(){
+    }
+
+    /**
+     * Finds an instance method of <Code>huffman</Code> and changes the type of its receiver to <Code>Object</Code>.
+     *
+     * @param lookup         lookup of public methods
+     * @param huffman        class <Code>Huffman</Code>
+     * @param name           name of the method
+     * @param returnType     return type of the method
+     * @param parameterTypes parameter types of the method
+     * @return               handle that takes the <Code>Huffman</Code> object as an <Code>Object</Code> followed by the parameters
+     * @throws ReflectiveOperationException if the method does not exist or is not public
+     */
+
+    private static MethodHandle findVirtual(MethodHandles.Lookup lookup, Class<?> huffman, String name, Class<?> returnType,
+                                            Class<?>... parameterTypes) throws ReflectiveOperationException{
+        MethodType type = MethodType.methodType(returnType, parameterTypes);
+        return lookup.findVirtual(huffman, name, type).asType(type.insertParameterTypes(0, Object.class));
+    }
+
+    static Object newHuffman(){
+        try{
+            return (Object)NEW_HUFFMAN.invokeExact();
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    static void setupDictionaryFromFile(Object huffman, String fileName, boolean isAlphabetRawText){
+        try{
+            SETUP_DICTIONARY_FROM_FILE.invokeExact(huffman, fileName, isAlphabetRawText);
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    static void setupHuffmanCodes(Object huffman){
+        try{
+            SETUP_HUFFMAN_CODES.invokeExact(huffman);
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    static StringBuilder encodeInput(Object huffman, String input){
+        try{
+            return (StringBuilder)ENCODE_INPUT.invokeExact(huffman, input);
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    static StringBuilder decodeInput(Object huffman, String input){
+        try{
+            return (StringBuilder)DECODE_INPUT.invokeExact(huffman, input);
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    static double calculateTotalAlphabetEntropy(Object huffman, boolean printComputations){
+        try{
+            return (double)CALCULATE_TOTAL_ALPHABET_ENTROPY.invokeExact(huffman, printComputations);
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static ArrayList<String> findBestBinomials(Object huffman, String alphabetFile, String binomialFileName, boolean findBestBinomial,
+                                               boolean printComputations){
+        try{
+            return (ArrayList<String>)FIND_BEST_BINOMIALS.invokeExact(huffman, alphabetFile, binomialFileName, findBestBinomial, printComputations);
+        }catch (Throwable e){
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Lets unchecked exceptions through and wraps the checked <Code>Exception</Code>s thrown by <Code>Huffman</Code>.
+     *
+     * @param e  exception thrown by a benchmarked method
+     * @return   never returns, the result is only there so that callers can write <Code>throw rethrow(e)</Code>
+     */
+
+    private static RuntimeException rethrow(Throwable e){
+        if(e instanceof RuntimeException){
+            throw (RuntimeException)e;
+        }else if(e instanceof Error){
+            throw (Error)e;
+        }
+        throw new IllegalStateException(e);
+    }
+}
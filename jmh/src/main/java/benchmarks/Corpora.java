@@ -0,0 +1,170 @@
+package benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Finds the files that benchmarks read. A corpus is either the name of a file bundled with the project, such as
+ * "problem11InputA.txt", or the name of generated text written as "distribution-size", such as "zipf-1MB".
+ * <p>
+ * Bundled files are looked up in the directory given by the system property "huffman.corpora", by default the working
+ * directory or its parent, so benchmarks can be started from the project directory or from <Code>jmh/</Code>.
+ * <p>
+ * Generated text is made of the letters "a" to "z" with a line break after every 80 letters. The letters are drawn with a fixed
+ * seed so that the same corpus has the same contents on every machine and across commits:
+ * <ul>
+ * <li>uniform - every letter is as likely
+ * <li>zipf    - the letter with rank r has a probability proportional to 1 / r
+ * <li>skewed  - the letter with rank r has a probability proportional to 1 / 2^r, which gives the longest codes
+ * </ul>
+ * The sizes are 1KB, 1MB and 100MB. Generated files are written once to the directory given by "huffman.generatedCorpora",
+ * by default "huffman-corpora" in the temporary directory, and reused by later runs.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 8.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+*/
+
+final class Corpora{
+    private static final int LINE_LENGTH = 80;
+    private static final long SEED = 0x48756666L;
+
+    private Corpora(){
+    }
+
+    /**
+     * Returns the path of a corpus, generating it first if it is generated text that does not exist yet.
+     *
+     * @param corpus      name of a bundled file or "distribution-size"
+     * @return            path of the file
+     * @throws IOException if the bundled file cannot be found or the generated file cannot be written
+     */
+
+    static String resolve(String corpus) throws IOException{
+        int separator = corpus.indexOf('-');
+        if(separator < 0){
+            return findBundledFile(corpus).getPath();
+        }
+
+        String distribution = corpus.substring(0, separator);
+        long size = parseSize(corpus.substring(separator + 1));
+        double[] cumulativeProbabilities = getCumulativeProbabilities(distribution);
+
+        File directory = new File(System.getProperty("huffman.generatedCorpora", new File(System.getProperty("java.io.tmpdir"), "huffman-corpora").getPath()));
+        File file = new File(directory, corpus + ".txt");
+        if(!file.isFile() || file.length() != size){
+            if(!directory.isDirectory() && !directory.mkdirs()){
+                throw new IOException("Cannot create " + directory);
+            }
+            generate(file, size, cumulativeProbabilities);
+        }
+
+        return file.getPath();
+    }
+
+    /**
+     * Reads a whole file as text. Every byte becomes one character, like the "a-z" and "A-Z" bytes counted by
+     * <Code>setupDictionaryFromFile()</Code>.
+     *
+     * @param fileName     path of the file
+     * @return             contents of the file
+     * @throws IOException if the file cannot be read
+     */
+
+    static String read(String fileName) throws IOException{
+        return new String(Files.readAllBytes(new File(fileName).toPath()), StandardCharsets.ISO_8859_1);
+    }
+
+    private static File findBundledFile(String name) throws IOException{
+        String directory = System.getProperty("huffman.corpora");
+        String[] candidates = directory != null ? new String[]{directory} : new String[]{".", ".."};
+
+        for(String candidate: candidates){
+            File file = new File(candidate, name);
+            if(file.isFile()){
+                return file;
+            }
+        }
+
+        throw new IOException("Cannot find " + name + " in " + Arrays.toString(candidates) + ", set -Dhuffman.corpora to the project directory");
+    }
+
+    private static long parseSize(String size){
+        if(size.endsWith("KB")){
+            return Long.parseLong(size.substring(0, size.length() - 2)) << 10;
+        }else if(size.endsWith("MB")){
+            return Long.parseLong(size.substring(0, size.length() - 2)) << 20;
+        }
+        return Long.parseLong(size);
+    }
+
+    /**
+     * Returns the cumulative probability of every letter, so a letter can be drawn with a binary search for a random number.
+     *
+     * @param distribution "uniform", "zipf" or "skewed"
+     * @return             cumulative probabilities of "a" to "z", the last one being 1
+     */
+
+    private static double[] getCumulativeProbabilities(String distribution){
+        double[] weights = new double[26];
+
+        for(int rank = 1; rank <= weights.length; rank++){
+            if(distribution.equals("uniform")){
+                weights[rank - 1] = 1;
+            }else if(distribution.equals("zipf")){
+                weights[rank - 1] = 1.0 / rank;
+            }else if(distribution.equals("skewed")){
+                weights[rank - 1] = Math.pow(0.5, rank);
+            }else{
+                throw new IllegalArgumentException("Unknown distribution \"" + distribution + "\", use uniform, zipf or skewed");
+            }
+        }
+
+        double sum = 0;
+        for(double weight: weights){
+            sum += weight;
+        }
+        double[] cumulativeProbabilities = new double[weights.length];
+        double cumulative = 0;
+        for(int i = 0; i < weights.length; i++){
+            cumulative += weights[i];
+            cumulativeProbabilities[i] = cumulative / sum;
+        }
+        cumulativeProbabilities[weights.length - 1] = 1;
+
+        return cumulativeProbabilities;
+    }
+
+    private static void generate(File file, long size, double[] cumulativeProbabilities) throws IOException{
+        Random random = new Random(SEED);
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+
+        try{
+            for(long i = 0; i < size; i++){
+                if(i % (LINE_LENGTH + 1) == LINE_LENGTH){
+                    output.write('\n');
+                    continue;
+                }
+                int letter = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+                if(letter < 0){
+                    letter = -letter - 1;
+                }
+                output.write('a' + letter);
+            }
+        }finally{
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,340 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * One-pass (adaptive) Huffman coding of bytes. Instead of counting the input first and sending a codebook, the encoder and the
+ * decoder start from the same empty tree and update it in the same way after every byte, so they stay in sync without any header
+ * and the first byte can be sent as soon as it is read. This makes it possible to compress live streams.
+ * <p>
+ * The tree is updated with the FGK algorithm (Faller, Gallager and Knuth) on which Vitter's algorithm is based. Nodes are numbered
+ * so that weights never decrease with the number and siblings have consecutive numbers (the sibling property). Before a node's
+ * weight grows it is swapped with the highest numbered node of the same weight, which keeps the property and so keeps the tree a
+ * Huffman tree. A byte that has not been met yet is sent as the code of the "not yet transmitted" (NYT) leaf followed by its 8 bits.
+ * <p><b>Format of <Code>compress()</Code>:</b> the codes and the padding marker of <Code>BitStreamWriter</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class AdaptiveHuffman{
+    private static final int SYMBOL_COUNT = 256;
+    private static final int NODE_COUNT = 2 * SYMBOL_COUNT + 1; // 256 leaves, the NYT leaf and 256 internal nodes
+    private static final int ROOT = NODE_COUNT - 1;
+    private static final int NO_NODE = -1;
+
+    // Every array is indexed by node number. A swap moves the contents of two numbers, the numbers themselves never move
+    private long[] weights = new long[NODE_COUNT];
+    private int[] parents = new int[NODE_COUNT];
+    private int[] leftChildren = new int[NODE_COUNT];
+    private int[] rightChildren = new int[NODE_COUNT];
+    private int[] symbols = new int[NODE_COUNT]; // Symbol of a leaf, NO_NODE for internal nodes and the NYT leaf
+    private int[] leaves = new int[SYMBOL_COUNT]; // Node number of every symbol's leaf, NO_NODE if the symbol has not been met
+    private int notYetTransmitted = ROOT;
+    private int[] pathBits = new int[NODE_COUNT];
+
+    /**
+     * AdaptiveHuffman constructor which starts with a tree that holds only the NYT leaf. The encoder and the decoder must both start this way.
+     */
+
+    public AdaptiveHuffman(){
+        Arrays.fill(parents, NO_NODE);
+        Arrays.fill(leftChildren, NO_NODE);
+        Arrays.fill(rightChildren, NO_NODE);
+        Arrays.fill(symbols, NO_NODE);
+        Arrays.fill(leaves, NO_NODE);
+    }
+
+    /**
+     * Compresses bytes in one pass.
+     *
+     * @param data  bytes to compress
+     * @return      codes and padding marker
+     */
+
+    public static byte[] compress(byte[] data){
+        AdaptiveHuffman adaptiveHuffman = new AdaptiveHuffman();
+        BitStreamWriter writer = new BitStreamWriter(data.length / 2);
+
+        for(byte value: data){
+            adaptiveHuffman.encodeSymbol(value & 0xFF, writer);
+        }
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decompresses the output of <Code>compress()</Code>.
+     *
+     * @param compressed  codes and padding marker
+     * @return            the original bytes
+     * @throws Exception  if <Code>compressed</Code> is not valid
+     */
+
+    public static byte[] decompress(byte[] compressed) throws Exception{
+        AdaptiveHuffman adaptiveHuffman = new AdaptiveHuffman();
+        BitStreamReader reader = new BitStreamReader(compressed);
+        byte[] result = new byte[Math.max(16, compressed.length * 2)];
+        int length = 0;
+
+        while(reader.getRemainingBits() > 0){
+            int symbol = adaptiveHuffman.decodeSymbol(reader);
+            if(symbol == -1){
+                throw new Exception("Codes are not valid at bit " + reader.getBitPosition());
+            }
+            if(length == result.length){
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            result[length++] = (byte)symbol;
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Compresses a stream in one pass. Bytes are encoded as they are read, and encoded bytes are sent to <Code>outputStream</Code>
+     * through a fixed-size buffer. Neither stream is closed.
+     *
+     * @param inputStream   bytes to compress
+     * @param outputStream  stream that receives the codes and the padding marker
+     * @return              amount of bytes encoded
+     * @throws IOException  if reading or writing fails
+     */
+
+    public static long encode(InputStream inputStream, OutputStream outputStream) throws IOException{
+        AdaptiveHuffman adaptiveHuffman = new AdaptiveHuffman();
+        BitStreamWriter writer = new BitStreamWriter(outputStream);
+        byte[] buffer = new byte[BitStreamReader.STREAM_BUFFER_SIZE];
+        long count = 0;
+        int read;
+
+        while((read = inputStream.read(buffer)) != -1){
+            for(int i = 0; i < read; i++){
+                adaptiveHuffman.encodeSymbol(buffer[i] & 0xFF, writer);
+            }
+            count += read;
+        }
+        writer.finish();
+
+        return count;
+    }
+
+    /**
+     * Decompresses a stream written by <Code>encode(InputStream, OutputStream)</Code>. Neither stream is closed.
+     *
+     * @param inputStream   codes and padding marker
+     * @param outputStream  stream that receives the bytes
+     * @return              amount of bytes decoded
+     * @throws Exception    if reading or writing fails or the codes are not valid
+     */
+
+    public static long decode(InputStream inputStream, OutputStream outputStream) throws Exception{
+        AdaptiveHuffman adaptiveHuffman = new AdaptiveHuffman();
+        BitStreamReader reader = new BitStreamReader(inputStream);
+        byte[] buffer = new byte[BitStreamReader.STREAM_BUFFER_SIZE];
+        int length = 0;
+        long count = 0;
+
+        while(reader.getRemainingBits() > 0){
+            int symbol = adaptiveHuffman.decodeSymbol(reader);
+            if(symbol == -1){
+                break;
+            }
+            buffer[length++] = (byte)symbol;
+            if(length == buffer.length){
+                outputStream.write(buffer, 0, length);
+                count += length;
+                length = 0;
+            }
+        }
+        if(reader.getStreamException() != null){
+            throw reader.getStreamException();
+        }
+        if(reader.getRemainingBits() != 0){
+            throw new Exception("Codes are not valid at bit " + reader.getBitPosition());
+        }
+
+        outputStream.write(buffer, 0, length);
+        outputStream.flush();
+        return count + length;
+    }
+
+    /**
+     * Writes the code of <Code>symbol</Code> and updates the tree.
+     *
+     * @param symbol  byte value from 0 to 255
+     * @param writer  output
+     */
+
+    public void encodeSymbol(int symbol, BitStreamWriter writer){
+        int leaf = leaves[symbol];
+
+        if(leaf != NO_NODE){
+            writePath(leaf, writer);
+        }else{
+            // New symbol: the code of the NYT leaf tells the decoder that the next 8 bits are the symbol itself
+            writePath(notYetTransmitted, writer);
+            writer.writeBits(symbol, 8);
+        }
+
+        update(symbol);
+    }
+
+    /**
+     * Reads the code of the next symbol and updates the tree.
+     *
+     * @param reader  input
+     * @return        the decoded byte value, or -1 if the input ends inside a code
+     */
+
+    public int decodeSymbol(BitStreamReader reader){
+        int node = ROOT;
+        long remainingBits = reader.getRemainingBits();
+        int bitsSinceCheck = 0;
+
+        // Follow the bits from the root down to a leaf
+        while(leftChildren[node] != NO_NODE){
+            if(bitsSinceCheck == 56){
+                // A reader of a stream only promises the bits in its buffer, so ask again before they run out
+                remainingBits = reader.getRemainingBits();
+                bitsSinceCheck = 0;
+            }
+            if(remainingBits < 1){
+                return -1;
+            }
+            remainingBits--;
+            bitsSinceCheck++;
+            node = reader.readBits(1) == 0 ? leftChildren[node] : rightChildren[node];
+        }
+
+        int symbol = symbols[node];
+        if(node == notYetTransmitted){
+            if(reader.getRemainingBits() < 8){
+                return -1;
+            }
+            symbol = reader.readBits(8);
+        }
+
+        update(symbol);
+        return symbol;
+    }
+
+    /**
+     * Writes the path from the root to <Code>node</Code>, where a left child is "0" and a right child is "1".
+     *
+     * @param node    node to reach
+     * @param writer  output
+     */
+
+    private void writePath(int node, BitStreamWriter writer){
+        // The path is found from the node up to the root, so it is collected first and written in reverse
+        int depth = 0;
+        while(node != ROOT){
+            int parent = parents[node];
+            pathBits[depth++] = rightChildren[parent] == node ? 1 : 0;
+            node = parent;
+        }
+
+        int bits = 0;
+        int count = 0;
+        for(int i = depth - 1; i >= 0; i--){
+            bits = (bits << 1) | pathBits[i];
+            if(++count == 32){
+                writer.writeBits(bits, 32);
+                bits = 0;
+                count = 0;
+            }
+        }
+        writer.writeBits(bits, count);
+    }
+
+    /**
+     * Adds one to the weight of <Code>symbol</Code> and of every node above it, swapping nodes where needed to keep the sibling property.
+     *
+     * @param symbol  symbol that was just coded
+     */
+
+    private void update(int symbol){
+        int node = leaves[symbol];
+
+        if(node == NO_NODE){
+            // Split the NYT leaf into an internal node with a new NYT leaf on the left and the new symbol's leaf on the right
+            int internal = notYetTransmitted;
+            node = internal - 1;
+            notYetTransmitted = internal - 2;
+
+            leftChildren[internal] = notYetTransmitted;
+            rightChildren[internal] = node;
+            parents[notYetTransmitted] = internal;
+            parents[node] = internal;
+            symbols[node] = symbol;
+            leaves[symbol] = node;
+        }
+
+        while(node != NO_NODE){
+            // The highest numbered node of the same weight is found above "node" because weights never decrease with the number
+            int leader = node;
+            while(leader + 1 < NODE_COUNT && weights[leader + 1] == weights[node]){
+                leader++;
+            }
+            if(leader != node && leader != parents[node]){
+                swap(node, leader);
+                node = leader;
+            }
+
+            weights[node]++;
+            node = parents[node];
+        }
+    }
+
+    /**
+     * Swaps the subtrees at node numbers <Code>first</Code> and <Code>second</Code>, which have the same weight. Each number keeps its parent.
+     *
+     * @param first   node number
+     * @param second  node number
+     */
+
+    private void swap(int first, int second){
+        int temp = symbols[first];
+        symbols[first] = symbols[second];
+        symbols[second] = temp;
+
+        temp = leftChildren[first];
+        leftChildren[first] = leftChildren[second];
+        leftChildren[second] = temp;
+
+        temp = rightChildren[first];
+        rightChildren[first] = rightChildren[second];
+        rightChildren[second] = temp;
+
+        fixLinks(first);
+        fixLinks(second);
+    }
+
+    /**
+     * Points the children, the leaf of the symbol or <Code>notYetTransmitted</Code> back at node number <Code>node</Code> after its contents moved there.
+     *
+     * @param node  node number
+     */
+
+    private void fixLinks(int node){
+        if(leftChildren[node] != NO_NODE){
+            parents[leftChildren[node]] = node;
+            parents[rightChildren[node]] = node;
+        }else if(symbols[node] != NO_NODE){
+            leaves[symbols[node]] = node;
+        }
+    }
+}
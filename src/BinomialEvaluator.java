@@ -0,0 +1,305 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores multigram candidates such as binomials by how much they would change the total alphabet entropy, without changing
+ * <Code>dictionary</Code> and without summing the entropy of every symbol again.
+ * <p>
+ * With <Code>F</Code> the sum of all frequencies and <Code>S</Code> the sum of <Code>f * log2(f)</Code> over all symbols, the total
+ * alphabet entropy is <Code>log2(F) - S / F</Code>. Adding a multigram of frequency <Code>g</Code> takes <Code>g</Code> away from every
+ * letter it is made of (twice from a letter it holds twice, as in "ee") and adds one symbol of frequency <Code>g</Code>. Only the terms of
+ * those letters change, so the new entropy is found from <Code>F</Code> and <Code>S</Code> with a few logarithms, whatever the size of the alphabet.
+ * <p>
+ * An evaluator is an immutable snapshot of the frequencies, so candidates are scored by many threads at once on the fork/join pool.
+ * <Code>withMultigram()</Code> returns a new snapshot with a multigram added, which is used for greedy selection in rounds.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>BinomialEvaluator evaluator = new BinomialEvaluator(huffman.dictionary);</Code>
+ * <p><Code>double[] changes = evaluator.calculateEntropyChanges(binomials, frequencies);</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class BinomialEvaluator{
+    private static final int PARALLEL_THRESHOLD = 1 << 12; // Candidates scored by one task
+    private static final double LOG_2 = Math.log(2);
+
+    private final HashMap<String, Long> frequencies; // Frequency of every key, including multigrams already added
+    private final long[] letterFrequencies; // Frequency of every one-character key by its "char", -1 if the key is not in the alphabet
+    private final long sumOfFrequencies;
+    private final double sumOfTerms; // Sum of f * log2(f)
+
+    /**
+     * BinomialEvaluator constructor which takes a snapshot of the frequencies of <Code>dictionary</Code>. Later changes to
+     * <Code>dictionary</Code> do not affect the evaluator.
+     *
+     * @param dictionary keys and frequencies
+     */
+
+    public BinomialEvaluator(HashMap<String, Code> dictionary){
+        this.frequencies = new HashMap<String, Long>();
+        this.letterFrequencies = new long[Character.MAX_VALUE + 1];
+        Arrays.fill(letterFrequencies, -1);
+
+        long sum = 0;
+        double terms = 0;
+        for(Map.Entry<String, Code> entry: dictionary.entrySet()){
+            long frequency = entry.getValue().frequency;
+            frequencies.put(entry.getKey(), frequency);
+            if(entry.getKey().length() == 1){
+                letterFrequencies[entry.getKey().charAt(0)] = frequency;
+            }
+            sum += frequency;
+            terms += calculateTerm(frequency);
+        }
+
+        this.sumOfFrequencies = sum;
+        this.sumOfTerms = terms;
+    }
+
+    /**
+     * BinomialEvaluator constructor used by <Code>withMultigram()</Code>.
+     */
+
+    private BinomialEvaluator(HashMap<String, Long> frequencies, long[] letterFrequencies, long sumOfFrequencies, double sumOfTerms){
+        this.frequencies = frequencies;
+        this.letterFrequencies = letterFrequencies;
+        this.sumOfFrequencies = sumOfFrequencies;
+        this.sumOfTerms = sumOfTerms;
+    }
+
+    /**
+     * Finds the total alphabet entropy of the snapshot.
+     *
+     * @return entropy in bits per symbol
+     */
+
+    public double calculateEntropy(){
+        return calculateEntropy(sumOfFrequencies, sumOfTerms);
+    }
+
+    /**
+     * Finds the total alphabet entropy if <Code>multigram</Code> were added to the alphabet, in constant time for a given multigram length.
+     *
+     * @param multigram  two or more letters that are each a key of the alphabet
+     * @param frequency  how often the multigram is met
+     * @return           the new entropy, or <Code>NaN</Code> if the multigram can not be added: it is already a key, one of its
+     *                   letters is not a key, its frequency is not positive or a letter would be left with a negative frequency.
+     *                   A letter left with frequency 0 drops out of the alphabet
+     */
+
+    public double calculateEntropyWithMultigram(String multigram, long frequency){
+        if(frequency <= 0 || multigram.length() < 2 || frequencies.containsKey(multigram)){
+            return Double.NaN;
+        }
+
+        double terms = sumOfTerms + calculateTerm(frequency);
+        for(int i = 0; i < multigram.length(); i++){
+            char letter = multigram.charAt(i);
+            if(multigram.indexOf(letter) < i){
+                continue; // Letter already handled together with its first occurrence
+            }
+
+            int count = 1;
+            for(int j = i + 1; j < multigram.length(); j++){
+                if(multigram.charAt(j) == letter){
+                    count++;
+                }
+            }
+
+            long letterFrequency = letterFrequencies[letter];
+            long newLetterFrequency = letterFrequency - count * frequency;
+            if(letterFrequency < 0 || newLetterFrequency < 0){
+                return Double.NaN;
+            }
+            terms += calculateTerm(newLetterFrequency) - calculateTerm(letterFrequency);
+        }
+
+        // "length" letters each lose "frequency" and the multigram gains it
+        long sum = sumOfFrequencies - (multigram.length() - 1) * frequency;
+        return calculateEntropy(sum, terms);
+    }
+
+    /**
+     * Finds how much the total alphabet entropy would change if <Code>multigram</Code> were added.
+     *
+     * @param multigram  two or more letters that are each a key of the alphabet
+     * @param frequency  how often the multigram is met
+     * @return           new entropy minus current entropy, negative when the multigram helps, or <Code>NaN</Code> if it can not be added
+     */
+
+    public double calculateEntropyChange(String multigram, long frequency){
+        return calculateEntropyWithMultigram(multigram, frequency) - calculateEntropy();
+    }
+
+    /**
+     * Scores every candidate in parallel on the fork/join pool.
+     *
+     * @param multigrams   candidates
+     * @param frequencies  frequency of every candidate
+     * @return             entropy change of every candidate, as in <Code>calculateEntropyChange()</Code>
+     */
+
+    public double[] calculateEntropyChanges(String[] multigrams, long[] frequencies){
+        double[] changes = new double[multigrams.length];
+        if(multigrams.length > 0){
+            Compression.FORK_JOIN_POOL.invoke(new ScoreTask(this, multigrams, frequencies, changes, 0, multigrams.length));
+        }
+        return changes;
+    }
+
+    /**
+     * Returns a new snapshot in which <Code>multigram</Code> is a key and its letters have lost its frequency. This snapshot is not changed.
+     *
+     * @param multigram  two or more letters that are each a key of the alphabet
+     * @param frequency  how often the multigram is met
+     * @return           the new snapshot
+     * @throws Exception if the multigram can not be added
+     */
+
+    public BinomialEvaluator withMultigram(String multigram, long frequency) throws Exception{
+        if(Double.isNaN(calculateEntropyWithMultigram(multigram, frequency))){
+            throw new Exception("Multigram \"" + multigram + "\" can not be added to the alphabet");
+        }
+
+        HashMap<String, Long> newFrequencies = new HashMap<String, Long>(frequencies);
+        long[] newLetterFrequencies = letterFrequencies.clone();
+        double terms = sumOfTerms + calculateTerm(frequency);
+
+        for(int i = 0; i < multigram.length(); i++){
+            char letter = multigram.charAt(i);
+            long letterFrequency = newLetterFrequencies[letter];
+            terms += calculateTerm(letterFrequency - frequency) - calculateTerm(letterFrequency);
+            newLetterFrequencies[letter] = letterFrequency - frequency;
+            newFrequencies.put(String.valueOf(letter), letterFrequency - frequency);
+        }
+        newFrequencies.put(multigram, frequency);
+
+        return new BinomialEvaluator(newFrequencies, newLetterFrequencies, sumOfFrequencies - (multigram.length() - 1) * frequency, terms);
+    }
+
+    /**
+     * Selects multigrams greedily: every round scores all remaining candidates in parallel and adds the one that lowers the entropy
+     * the most, until no candidate lowers it or <Code>maxRounds</Code> multigrams are selected. Unlike trying candidates one after
+     * another, every round sees the letter frequencies left by the multigrams selected before it.
+     *
+     * @param multigrams   candidates
+     * @param frequencies  frequency of every candidate
+     * @param maxRounds    most multigrams to select
+     * @return             selected multigrams in the order in which they were selected
+     * @throws Exception   if a selected multigram can not be added, which does not happen for a candidate with a finite score
+     */
+
+    public ArrayList<String> selectGreedily(String[] multigrams, long[] frequencies, int maxRounds) throws Exception{
+        ArrayList<String> selected = new ArrayList<String>();
+        HashSet<Integer> used = new HashSet<Integer>();
+        BinomialEvaluator evaluator = this;
+
+        for(int round = 0; round < maxRounds; round++){
+            double[] changes = evaluator.calculateEntropyChanges(multigrams, frequencies);
+
+            int best = -1;
+            for(int i = 0; i < changes.length; i++){
+                // "NaN < x" is false so candidates that can not be added are never chosen
+                if(!used.contains(i) && changes[i] < 0 && (best == -1 || changes[i] < changes[best])){
+                    best = i;
+                }
+            }
+            if(best == -1){
+                break;
+            }
+
+            used.add(best);
+            selected.add(multigrams[best]);
+            evaluator = evaluator.withMultigram(multigrams[best], frequencies[best]);
+        }
+
+        return selected;
+    }
+
+    /**
+     * Returns the frequencies of the snapshot.
+     *
+     * @return copy of the frequency of every key
+     */
+
+    public HashMap<String, Long> getFrequencies(){
+        return new HashMap<String, Long>(frequencies);
+    }
+
+    /**
+     * Finds <Code>f * log2(f)</Code>, which is 0 for a frequency of 0.
+     *
+     * @param frequency  frequency of a symbol
+     * @return           the term of the symbol in <Code>S</Code>
+     */
+
+    private static double calculateTerm(long frequency){
+        return frequency == 0 ? 0 : frequency * (Math.log(frequency) / LOG_2);
+    }
+
+    /**
+     * Finds the entropy <Code>log2(F) - S / F</Code>.
+     *
+     * @param sum    sum of all frequencies
+     * @param terms  sum of <Code>f * log2(f)</Code>
+     * @return       entropy in bits per symbol
+     */
+
+    private static double calculateEntropy(long sum, double terms){
+        return Math.log(sum) / LOG_2 - terms / sum;
+    }
+
+    /**
+     * Scores a range of candidates by splitting it in half until at most <Code>PARALLEL_THRESHOLD</Code> candidates are left.
+     */
+
+    private static class ScoreTask extends RecursiveAction{
+        private BinomialEvaluator evaluator;
+        private String[] multigrams;
+        private long[] frequencies;
+        private double[] changes;
+        private int start;
+        private int end;
+
+        public ScoreTask(BinomialEvaluator evaluator, String[] multigrams, long[] frequencies, double[] changes, int start, int end){
+            this.evaluator = evaluator;
+            this.multigrams = multigrams;
+            this.frequencies = frequencies;
+            this.changes = changes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute(){
+            if(end - start <= PARALLEL_THRESHOLD){
+                double entropy = evaluator.calculateEntropy();
+                for(int i = start; i < end; i++){
+                    changes[i] = evaluator.calculateEntropyWithMultigram(multigrams[i], frequencies[i]) - entropy;
+                }
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new ScoreTask(evaluator, multigrams, frequencies, changes, start, middle),
+                    new ScoreTask(evaluator, multigrams, frequencies, changes, middle, end));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits one code at a time from packed bytes. Bits are read starting from the most significant bit of every byte,
+ * which is the same order in which a code <Code>String</Code> such as "0110" is written left to right.
+ * <p>
+ * The reader keeps up to 64 bits in a <Code>long</Code> buffer so that a <Code>DecodingTable</Code> can look at the next
+ * bits of the input without moving forward. Moving forward only changes a cursor, the input itself is never copied.
+ * <p>
+ * When reading from an <Code>InputStream</Code> only a fixed-size buffer of the stream is kept in memory. A failed read ends
+ * the input early and the <Code>IOException</Code> can be found with <Code>getStreamException()</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class BitStreamReader{
+    public static final int STREAM_BUFFER_SIZE = 1 << 16;
+
+    private ByteBuffer source;
+    private long bitBuffer; // The lowest "bitCount" bits of "bitBuffer" are bits that have been read from "source" but not yet used
+    private int bitCount;
+    private long bitLength;
+    private long bitPosition;
+
+    private InputStream stream;
+    private boolean endOfStream;
+    private long streamBytesRead;
+    private IOException streamException;
+
+    /**
+     * BitStreamReader constructor which reads bits written by <Code>BitStreamWriter.toByteArray()</Code>. The last byte of
+     * <Code>buffer</Code> holds the amount of padding bits in the byte before it.
+     *
+     * @param buffer     packed bits followed by the padding marker
+     * @throws Exception if <Code>buffer</Code> does not end with a valid padding marker
+     */
+
+    public BitStreamReader(byte[] buffer) throws Exception{
+        if(buffer.length == 0 || buffer[buffer.length - 1] < 0 || buffer[buffer.length - 1] > 7 || (buffer.length == 1 && buffer[0] != 0)){
+            throw new Exception("Input does not end with a valid padding marker");
+        }
+
+        this.source = ByteBuffer.wrap(buffer, 0, buffer.length - 1);
+        this.bitLength = (buffer.length - 1) * 8L - buffer[buffer.length - 1];
+    }
+
+    /**
+     * BitStreamReader constructor which reads bits written by a <Code>BitStreamWriter</Code> to an <Code>OutputStream</Code>.
+     * The last byte of the stream holds the amount of padding bits in the byte before it, so the reader always keeps one byte
+     * back until it reaches the end of the stream.
+     *
+     * @param stream  packed bits followed by the padding marker
+     */
+
+    public BitStreamReader(InputStream stream){
+        this.stream = stream;
+        this.source = ByteBuffer.wrap(new byte[STREAM_BUFFER_SIZE]);
+        this.source.limit(0);
+        this.bitLength = Long.MAX_VALUE; // Not known until the end of the stream is reached
+    }
+
+    /**
+     * BitStreamReader constructor which reads from a byte array.
+     *
+     * @param buffer     packed bits
+     * @param bitLength  amount of bits in <Code>buffer</Code> that are part of the input. The remaining bits of the last byte are padding
+     */
+
+    public BitStreamReader(byte[] buffer, long bitLength){
+        this(ByteBuffer.wrap(buffer), bitLength);
+    }
+
+    /**
+     * BitStreamReader constructor which reads from a <Code>ByteBuffer</Code>, for example a memory-mapped file.
+     * Bits are read from the buffer's position up to its limit. The position of <Code>source</Code> itself is not changed.
+     *
+     * @param source     packed bits
+     * @param bitLength  amount of bits in <Code>source</Code> that are part of the input. The remaining bits of the last byte are padding
+     */
+
+    public BitStreamReader(ByteBuffer source, long bitLength){
+        this.source = source.duplicate();
+        this.bitLength = bitLength;
+    }
+
+    /**
+     * Returns the next <Code>count</Code> bits without moving forward. If fewer than <Code>count</Code> bits are
+     * left the missing bits are returned as "0"s.
+     *
+     * @param count  amount of bits to look at, from 1 to 32
+     * @return       the bits with the first bit as the most significant one
+     */
+
+    public int peekBits(int count){
+        if(bitCount < count){
+            fillBitBuffer();
+        }
+
+        if(bitCount >= count){
+            return (int)((bitBuffer >>> (bitCount - count)) & ((1L << count) - 1));
+        }else{
+            // Not enough bits are left so the missing bits are "0"s
+            return (int)((bitBuffer << (count - bitCount)) & ((1L << count) - 1));
+        }
+    }
+
+    /**
+     * Moves forward by <Code>count</Code> bits.
+     *
+     * @param count  amount of bits to skip
+     */
+
+    public void skipBits(int count){
+        bitPosition += count;
+
+        while(count > bitCount){
+            count -= bitCount;
+            bitCount = 0;
+            fillBitBuffer();
+            if(bitCount == 0){
+                return; // End of input
+            }
+        }
+        bitCount -= count;
+    }
+
+    /**
+     * Reads the next <Code>count</Code> bits and moves forward.
+     *
+     * @param count  amount of bits to read, from 1 to 32
+     * @return       the bits with the first bit as the most significant one
+     */
+
+    public int readBits(int count){
+        int bits = peekBits(count);
+        skipBits(count);
+        return bits;
+    }
+
+    /**
+     * Returns how many bits have been read so far.
+     *
+     * @return position of the next bit
+     */
+
+    public long getBitPosition(){
+        return bitPosition;
+    }
+
+    /**
+     * Returns how many bits of the input are left to read.
+     *
+     * @return amount of bits left
+     */
+
+    public long getRemainingBits(){
+        if(stream != null && !endOfStream){
+            fillBitBuffer();
+            if(!endOfStream){
+                return Long.MAX_VALUE; // More than the 56 bits in "bitBuffer" are left
+            }
+        }
+        return bitLength - bitPosition;
+    }
+
+    /**
+     * Returns the exception that ended reading from the <Code>InputStream</Code> early.
+     *
+     * @return the exception or <Code>null</Code> if reading did not fail
+     */
+
+    public IOException getStreamException(){
+        return streamException;
+    }
+
+    /**
+     * Moves bytes from <Code>source</Code> into <Code>bitBuffer</Code> until it is nearly full or there are no more bytes.
+     */
+
+    private void fillBitBuffer(){
+        while(bitCount <= 56){
+            // The last byte of a stream is the padding marker so one byte is held back until the end of the stream is known
+            if(stream != null && !endOfStream && source.remaining() <= 1){
+                readFromStream();
+                continue;
+            }
+            if(!source.hasRemaining()){
+                break;
+            }
+            bitBuffer = (bitBuffer << 8) | (source.get() & 0xFF);
+            bitCount += 8;
+        }
+    }
+
+    /**
+     * Moves the unread bytes of <Code>source</Code> to its front and fills the rest from <Code>stream</Code>. When the
+     * end of the stream is reached the padding marker is removed from <Code>source</Code> and the bit length becomes known.
+     */
+
+    private void readFromStream(){
+        source.compact();
+        int read;
+        try{
+            read = stream.read(source.array(), source.position(), source.remaining());
+        }catch (IOException e){
+            streamException = e;
+            read = -1;
+        }
+        if(read > 0){
+            source.position(source.position() + read);
+            streamBytesRead += read;
+        }
+        source.flip();
+
+        if(read == -1){
+            endOfStream = true;
+            int paddingBits = source.hasRemaining() ? source.get(source.limit() - 1) : -1;
+            if(paddingBits < 0 || paddingBits > 7){
+                if(streamException == null){
+                    streamException = new IOException("Input does not end with a valid padding marker");
+                }
+                paddingBits = 0;
+            }
+            source.limit(Math.max(0, source.limit() - 1));
+            bitLength = Math.max(0, (streamBytesRead - 1) * 8 - paddingBits);
+        }
+    }
+}
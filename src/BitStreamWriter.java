@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes codes as packed bits instead of "0" and "1" characters. Bits are written starting from the most significant
+ * bit of every byte, which is the same order in which a code <Code>String</Code> such as "0110" is written left to right.
+ * <p>
+ * <b>Format of <Code>toByteArray()</Code>:</b> the packed bits, where the unused bits of the last byte are "0"s, followed by
+ * one byte with the amount of unused (padding) bits. <Code>new BitStreamReader(byte[])</Code> reads this format.
+ * <p>
+ * When writing to an <Code>OutputStream</Code> bytes are sent to the stream whenever the fixed-size buffer is full and
+ * <Code>finish()</Code> writes the last byte and the padding marker. <Code>new BitStreamReader(InputStream)</Code> reads this output.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class BitStreamWriter{
+    private byte[] buffer = new byte[64];
+    private int bufferPosition;
+    private long bitBuffer; // The lowest "bitCount" bits of "bitBuffer" are bits that do not yet fill a whole byte
+    private int bitCount;
+    private long bitLength;
+
+    private OutputStream stream;
+    private IOException streamException;
+
+    /**
+     * BitStreamWriter constructor which keeps all written bits in memory until <Code>toByteArray()</Code> is called.
+     */
+
+    public BitStreamWriter(){
+    }
+
+    /**
+     * BitStreamWriter constructor which keeps all written bits in memory, starting with room for <Code>initialCapacity</Code> bytes
+     * so that a writer whose output size is roughly known does not have to grow its buffer many times.
+     *
+     * @param initialCapacity  expected amount of bytes
+     */
+
+    public BitStreamWriter(int initialCapacity){
+        this.buffer = new byte[Math.max(64, initialCapacity)];
+    }
+
+    /**
+     * BitStreamWriter constructor which sends the written bits to <Code>stream</Code> through a fixed-size buffer.
+     * The stream is not closed by the writer.
+     *
+     * @param stream  stream that receives the packed bits
+     */
+
+    public BitStreamWriter(OutputStream stream){
+        this.stream = stream;
+        this.buffer = new byte[BitStreamReader.STREAM_BUFFER_SIZE];
+    }
+
+    /**
+     * Writes the lowest <Code>count</Code> bits of <Code>bits</Code>, most significant bit first.
+     *
+     * @param bits   bits to write
+     * @param count  amount of bits to write, from 0 to 64
+     */
+
+    public void writeBits(long bits, int count){
+        if(count > 32){
+            // Write the upper part first so that "bitBuffer" never holds more than 39 bits
+            writeBits(bits >>> 32, count - 32);
+            count = 32;
+        }
+
+        bitBuffer = (bitBuffer << count) | (bits & ((1L << count) - 1));
+        bitCount += count;
+        bitLength += count;
+
+        while(bitCount >= 8){
+            bitCount -= 8;
+            writeByte((int)(bitBuffer >>> bitCount));
+        }
+    }
+
+    /**
+     * Writes a code of any length written as "0"s and "1"s.
+     *
+     * @param code  code to write
+     */
+
+    public void writeCode(String code){
+        for(int i = 0; i < code.length(); i++){
+            writeBits(code.charAt(i) == '1' ? 1 : 0, 1);
+        }
+    }
+
+    /**
+     * Returns how many bits have been written.
+     *
+     * @return amount of bits written, padding not included
+     */
+
+    public long getBitLength(){
+        return bitLength;
+    }
+
+    /**
+     * Returns the written bits followed by one byte with the amount of padding bits in the last byte of bits.
+     *
+     * @return packed bits and the padding marker
+     */
+
+    public byte[] toByteArray(){
+        int paddingBits = (8 - bitCount) % 8;
+        byte[] result = Arrays.copyOf(buffer, bufferPosition + (paddingBits > 0 ? 2 : 1));
+
+        if(paddingBits > 0){
+            result[bufferPosition] = (byte)(bitBuffer << paddingBits);
+        }
+        result[result.length - 1] = (byte)paddingBits;
+
+        return result;
+    }
+
+    /**
+     * Returns the written bits with the last byte filled up with "0"s but without the padding marker, for formats that store
+     * the amount of bits or symbols elsewhere.
+     *
+     * @return packed bits
+     */
+
+    public byte[] toAlignedByteArray(){
+        int paddingBits = (8 - bitCount) % 8;
+        byte[] result = Arrays.copyOf(buffer, bufferPosition + (paddingBits > 0 ? 1 : 0));
+
+        if(paddingBits > 0){
+            result[bufferPosition] = (byte)(bitBuffer << paddingBits);
+        }
+
+        return result;
+    }
+
+    /**
+     * Writes the last byte of bits and the padding marker to the stream and flushes it. No bits can be written afterwards.
+     *
+     * @throws IOException if writing to the stream failed at any point
+     */
+
+    public void finish() throws IOException{
+        int paddingBits = (8 - bitCount) % 8;
+
+        if(paddingBits > 0){
+            writeByte((int)(bitBuffer << paddingBits));
+            bitCount = 0;
+        }
+        writeByte(paddingBits);
+        flushBuffer();
+
+        if(streamException != null){
+            throw streamException;
+        }
+        stream.flush();
+    }
+
+    /**
+     * Adds a whole byte to <Code>buffer</Code>. When <Code>buffer</Code> is full it is sent to the stream, or made bigger if there is no stream.
+     *
+     * @param value  byte to add
+     */
+
+    private void writeByte(int value){
+        if(bufferPosition == buffer.length){
+            if(stream != null){
+                flushBuffer();
+            }else{
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+        buffer[bufferPosition++] = (byte)value;
+    }
+
+    /**
+     * Sends <Code>buffer</Code> to the stream. A failed write is remembered and thrown by <Code>finish()</Code>.
+     */
+
+    private void flushBuffer(){
+        if(streamException == null){
+            try{
+                stream.write(buffer, 0, bufferPosition);
+            }catch (IOException e){
+                streamException = e;
+            }
+        }
+        bufferPosition = 0;
+    }
+}
@@ -0,0 +1,268 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Lossless Huffman coding of arbitrary bytes. Unlike <Code>Compression</Code>, which filters input down to letters and works
+ * with one <Code>String</Code> per character, ByteHuffman works on <Code>byte[]</Code> and <Code>ByteBuffer</Code> directly with an
+ * alphabet of the 256 byte values plus an end-of-block symbol, so any data such as binary files can be encoded and decoded back exactly.
+ * <p>
+ * Codes are canonical and at most <Code>MAX_CODE_LENGTH</Code> bits long, so the codebook is written as one 4-bit code length per symbol.
+ * <p><b>Format of <Code>compress()</Code>:</b> 257 code lengths of 4 bits each, the codes of every byte, the end-of-block code and the
+ * padding marker of <Code>BitStreamWriter</Code>.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>byte[] compressed = ByteHuffman.compress(data);</Code>
+ * <p><Code>byte[] data = ByteHuffman.decompress(compressed);</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class ByteHuffman{
+    public static final int END_OF_BLOCK = 256;
+    public static final int SYMBOL_COUNT = 257;
+    public static final int MAX_CODE_LENGTH = 15;
+    private static final int CODE_LENGTH_BITS = 4;
+
+    private SymbolModel model;
+    private DecodingTable decodingTable;
+
+    /**
+     * ByteHuffman constructor which uses the codes of <Code>model</Code>.
+     *
+     * @param model      model with <Code>SYMBOL_COUNT</Code> symbols where symbol <Code>END_OF_BLOCK</Code> is the end-of-block marker
+     * @throws Exception if <Code>model</Code> does not have <Code>SYMBOL_COUNT</Code> symbols or its codes are longer than <Code>MAX_CODE_LENGTH</Code>
+     */
+
+    public ByteHuffman(SymbolModel model) throws Exception{
+        if(model.size != SYMBOL_COUNT){
+            throw new Exception("A byte model must have " + SYMBOL_COUNT + " symbols but has " + model.size);
+        }
+        if(model.getMaxCodeLength() > MAX_CODE_LENGTH){
+            throw new Exception("Codes of a byte model can not be longer than " + MAX_CODE_LENGTH + " bits");
+        }
+
+        this.model = model;
+    }
+
+    /**
+     * Builds codes from the frequency of every byte value. The end-of-block symbol is given a frequency of 1.
+     *
+     * @param byteFrequencies  frequency of every byte value, as in <Code>FrequencyCounter.frequencies</Code>
+     * @return                 codec with length-limited Huffman codes
+     * @throws Exception       if the codes can not be built
+     */
+
+    public static ByteHuffman fromFrequencies(long[] byteFrequencies) throws Exception{
+        SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+        System.arraycopy(byteFrequencies, 0, model.frequencies, 0, 256);
+        model.frequencies[END_OF_BLOCK] = 1;
+        Huffman.setupLengthLimitedHuffmanCodes(model, MAX_CODE_LENGTH);
+        return new ByteHuffman(model);
+    }
+
+    /**
+     * Builds codes from the bytes of <Code>data</Code>, which are counted in parallel by <Code>FrequencyCounter</Code>.
+     *
+     * @param data       bytes from the position to the limit of the buffer. The position is not changed
+     * @return           codec with length-limited Huffman codes
+     * @throws Exception if the codes can not be built
+     */
+
+    public static ByteHuffman fromData(ByteBuffer data) throws Exception{
+        return fromFrequencies(FrequencyCounter.countBuffer(data, FrequencyCounter.DEFAULT_CHUNK_SIZE).frequencies);
+    }
+
+    /**
+     * Compresses <Code>data</Code> with codes built from its own bytes.
+     *
+     * @param data       bytes to compress
+     * @return           codebook, codes, end-of-block marker and padding marker
+     * @throws Exception if the codes can not be built
+     */
+
+    public static byte[] compress(byte[] data) throws Exception{
+        return compress(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Compresses the bytes from the position to the limit of <Code>data</Code> with codes built from those bytes.
+     * The position of <Code>data</Code> is not changed.
+     *
+     * @param data       bytes to compress
+     * @return           codebook, codes, end-of-block marker and padding marker
+     * @throws Exception if the codes can not be built
+     */
+
+    public static byte[] compress(ByteBuffer data) throws Exception{
+        ByteHuffman byteHuffman = fromData(data);
+        BitStreamWriter writer = new BitStreamWriter();
+
+        byteHuffman.writeCodeLengths(writer);
+        byteHuffman.encode(data, writer);
+        byteHuffman.writeEndOfBlock(writer);
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decompresses the output of <Code>compress()</Code>.
+     *
+     * @param compressed  codebook, codes, end-of-block marker and padding marker
+     * @return            the original bytes
+     * @throws Exception  if <Code>compressed</Code> is not valid
+     */
+
+    public static byte[] decompress(byte[] compressed) throws Exception{
+        BitStreamReader reader = new BitStreamReader(compressed);
+        ByteHuffman byteHuffman = readCodeLengths(reader);
+
+        byte[] result = new byte[Math.max(16, compressed.length * 2)];
+        int length = 0;
+        while(true){
+            int decoded = byteHuffman.decode(reader, result, length, result.length - length);
+            length += decoded;
+            if(length < result.length){
+                break; // Stopped at the end-of-block marker
+            }
+            result = Arrays.copyOf(result, result.length * 2);
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Writes the codebook: the code length of every symbol in 4 bits.
+     *
+     * @param writer  output
+     */
+
+    public void writeCodeLengths(BitStreamWriter writer){
+        for(int symbol = 0; symbol < SYMBOL_COUNT; symbol++){
+            writer.writeBits(model.codeLengths[symbol], CODE_LENGTH_BITS);
+        }
+    }
+
+    /**
+     * Reads a codebook written by <Code>writeCodeLengths()</Code> and rebuilds its canonical codes.
+     *
+     * @param reader     input
+     * @return           codec with the codes of the codebook
+     * @throws Exception if the code lengths do not form a prefix code
+     */
+
+    public static ByteHuffman readCodeLengths(BitStreamReader reader) throws Exception{
+        SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+        for(int symbol = 0; symbol < SYMBOL_COUNT; symbol++){
+            model.codeLengths[symbol] = (byte)reader.readBits(CODE_LENGTH_BITS);
+        }
+        if(reader.getRemainingBits() < 0){
+            throw new Exception("Input ends inside the codebook");
+        }
+
+        model.assignCanonicalCodes();
+        return new ByteHuffman(model);
+    }
+
+    /**
+     * Writes the code of every byte from the position to the limit of <Code>data</Code>. The position of <Code>data</Code> is not changed.
+     *
+     * @param data       bytes to encode
+     * @param writer     output
+     * @throws Exception if a byte does not have a code
+     */
+
+    public void encode(ByteBuffer data, BitStreamWriter writer) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        long startBitLength = writer.getBitLength();
+        long[] codeBits = model.codeBits;
+        byte[] codeLengths = model.codeLengths;
+
+        for(int i = data.position(); i < data.limit(); i++){
+            int value = data.get(i) & 0xFF;
+            if(codeLengths[value] == 0){
+                throw new Exception("Byte " + value + " does not have a code");
+            }
+            writer.writeBits(codeBits[value], codeLengths[value]);
+        }
+
+        CodecMetrics.INSTANCE.recordEncode(start, data.remaining(), data.remaining(), writer.getBitLength() - startBitLength);
+    }
+
+    /**
+     * Writes the code of the end-of-block symbol.
+     *
+     * @param writer  output
+     */
+
+    public void writeEndOfBlock(BitStreamWriter writer){
+        model.writeSymbol(writer, END_OF_BLOCK);
+    }
+
+    /**
+     * Decodes bytes into <Code>output</Code> until <Code>maxLength</Code> bytes are decoded or the end-of-block symbol is read.
+     *
+     * @param reader     input
+     * @param output     array that receives the bytes
+     * @param offset     index in <Code>output</Code> of the first decoded byte
+     * @param maxLength  most bytes to decode
+     * @return           amount of bytes decoded. Less than <Code>maxLength</Code> means the end-of-block symbol was read
+     * @throws Exception if the codes do not correspond to the codebook
+     */
+
+    public int decode(BitStreamReader reader, byte[] output, int offset, int maxLength) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        long startBitPosition = reader.getBitPosition();
+        DecodingTable table = getDecodingTable();
+
+        for(int i = 0; i < maxLength; i++){
+            int symbol = table.decodeSymbol(reader);
+            if(symbol == END_OF_BLOCK){
+                CodecMetrics.INSTANCE.recordDecode(start, reader.getBitPosition() - startBitPosition, i, i);
+                return i;
+            }else if(symbol == -1){
+                CodecMetrics.INSTANCE.recordDecodeError();
+                throw new Exception("Codes do not correspond to the codebook at bit " + reader.getBitPosition());
+            }
+            output[offset + i] = (byte)symbol;
+        }
+
+        CodecMetrics.INSTANCE.recordDecode(start, reader.getBitPosition() - startBitPosition, maxLength, maxLength);
+        return maxLength;
+    }
+
+    /**
+     * Returns the model with the codes of this codec.
+     *
+     * @return symbol model with <Code>SYMBOL_COUNT</Code> symbols
+     */
+
+    public SymbolModel getModel(){
+        return model;
+    }
+
+    /**
+     * Returns the decoding table, building it the first time it is needed. Synchronized so that blocks can be decoded by several threads.
+     *
+     * @return           table for the codes of <Code>model</Code>
+     * @throws Exception if the codes are not prefix free
+     */
+
+    private synchronized DecodingTable getDecodingTable() throws Exception{
+        if(decodingTable == null){
+            decodingTable = model.buildDecodingTable();
+        }
+        return decodingTable;
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Numbers the distinct Unicode code points of a text with dense symbols 0, 1, 2, ... in the order in which they are added,
+ * so that the symbols can index a <Code>SymbolModel</Code>.
+ * <p>
+ * Code points of the Basic Multilingual Plane (U+0000 to U+FFFF), which hold the letters of nearly every script, are looked
+ * up in flat arrays of 256 code points. An array is only created for a block that is used, so a text in one or two scripts
+ * needs only a few small arrays. The rare supplementary code points (above U+FFFF) are kept in a <Code>HashMap</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CodePointAlphabet{
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int NO_SYMBOL = -1;
+
+    public int size;
+
+    private int[][] pages = new int[(Character.MAX_VALUE + 1) >> PAGE_BITS][]; // Symbol of every BMP code point, one array per block of 256 code points. "null" for unused blocks
+    private HashMap<Integer, Integer> supplementarySymbols = new HashMap<Integer, Integer>();
+    private int[] codePoints = new int[64]; // Code point of every symbol
+
+    /**
+     * Returns the symbol of <Code>codePoint</Code>.
+     *
+     * @param codePoint  code point to look up
+     * @return           the symbol, or -1 if <Code>codePoint</Code> has not been added
+     */
+
+    public int getSymbol(int codePoint){
+        if(codePoint >= 0 && codePoint <= Character.MAX_VALUE){
+            int[] page = pages[codePoint >>> PAGE_BITS];
+            return page == null ? NO_SYMBOL : page[codePoint & (PAGE_SIZE - 1)];
+        }
+
+        Integer symbol = supplementarySymbols.get(codePoint);
+        return symbol == null ? NO_SYMBOL : symbol;
+    }
+
+    /**
+     * Adds <Code>codePoint</Code> as the next symbol unless it has already been added.
+     *
+     * @param codePoint  code point to add
+     * @return           the symbol of <Code>codePoint</Code>
+     * @throws Exception if <Code>codePoint</Code> is not a valid code point or the alphabet is full
+     */
+
+    public int addCodePoint(int codePoint) throws Exception{
+        int symbol = getSymbol(codePoint);
+        if(symbol != NO_SYMBOL){
+            return symbol;
+        }
+
+        if(!Character.isValidCodePoint(codePoint)){
+            throw new Exception("Code point " + codePoint + " is not valid");
+        }
+        if(size == SymbolModel.MAX_SYMBOLS){
+            throw new Exception("An alphabet can have at most " + SymbolModel.MAX_SYMBOLS + " code points");
+        }
+
+        symbol = size;
+        if(codePoint <= Character.MAX_VALUE){
+            int[] page = pages[codePoint >>> PAGE_BITS];
+            if(page == null){
+                page = new int[PAGE_SIZE];
+                Arrays.fill(page, NO_SYMBOL);
+                pages[codePoint >>> PAGE_BITS] = page;
+            }
+            page[codePoint & (PAGE_SIZE - 1)] = symbol;
+        }else{
+            supplementarySymbols.put(codePoint, symbol);
+        }
+
+        if(size == codePoints.length){
+            codePoints = Arrays.copyOf(codePoints, codePoints.length * 2);
+        }
+        codePoints[size++] = codePoint;
+
+        return symbol;
+    }
+
+    /**
+     * Returns the code point of <Code>symbol</Code>.
+     *
+     * @param symbol  symbol from 0 to <Code>size - 1</Code>
+     * @return        the code point
+     */
+
+    public int getCodePoint(int symbol){
+        return codePoints[symbol];
+    }
+
+    /**
+     * Returns the code point of <Code>symbol</Code> as text, which is two <Code>char</Code>s for a supplementary code point.
+     *
+     * @param symbol  symbol from 0 to <Code>size - 1</Code>
+     * @return        the code point as a <Code>String</Code>
+     */
+
+    public String getKey(int symbol){
+        return new String(Character.toChars(codePoints[symbol]));
+    }
+}
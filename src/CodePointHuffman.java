@@ -0,0 +1,377 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Huffman coding of UTF-8 text with one symbol per Unicode code point, so letters outside "a-z" such as U+00E4 ("a" with umlaut) or Cyrillic letters and
+ * supplementary characters made of two <Code>char</Code>s are kept whole. UTF-8 bytes are decoded into code points and encoded
+ * back directly, without building a <Code>String</Code> of the text.
+ * <p>
+ * When <Code>lettersOnly == true</Code> only letters of any script are kept and they are made lower case, which is the
+ * Unicode version of the raw-text filter of <Code>Compression</Code>. Otherwise every code point is kept and decoding gives
+ * back the exact input.
+ * <p><b>Format of <Code>encode()</Code>:</b> the amount of code points in the alphabet (17 bits), then the code point (21 bits) and
+ * code length (5 bits) of every symbol and the code length of the end-of-block symbol, then the codes of the text, the end-of-block
+ * code and the padding marker of <Code>BitStreamWriter</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CodePointHuffman{
+    public static final int MAX_CODE_LENGTH = 31;
+    private static final int ALPHABET_SIZE_BITS = 17;
+    private static final int CODE_POINT_BITS = 21;
+    private static final int CODE_LENGTH_BITS = 5;
+
+    private CodePointAlphabet alphabet;
+    private SymbolModel model; // Symbols of "alphabet" followed by the end-of-block symbol
+    private boolean lettersOnly;
+    private DecodingTable decodingTable;
+
+    /**
+     * CodePointHuffman constructor which uses the codes of <Code>model</Code>.
+     *
+     * @param alphabet     code point of every symbol
+     * @param model        model with one symbol more than <Code>alphabet</Code>, the last one being the end-of-block symbol
+     * @param lettersOnly  whether <Code>encode()</Code> keeps only letters and makes them lower case
+     */
+
+    public CodePointHuffman(CodePointAlphabet alphabet, SymbolModel model, boolean lettersOnly){
+        this.alphabet = alphabet;
+        this.model = model;
+        this.lettersOnly = lettersOnly;
+    }
+
+    /**
+     * Counts the code points of UTF-8 text and builds Huffman codes for them. Symbols are numbered in the order in which their
+     * code points are first met.
+     *
+     * @param text         UTF-8 bytes from the position to the limit of the buffer. The position is not changed
+     * @param lettersOnly  whether only letters are counted, made lower case
+     * @return             codec for the code points of <Code>text</Code>
+     * @throws Exception   if <Code>text</Code> is not valid UTF-8 or has too many distinct code points
+     */
+
+    public static CodePointHuffman fromText(ByteBuffer text, boolean lettersOnly) throws Exception{
+        CodePointAlphabet alphabet = new CodePointAlphabet();
+        long[] frequencies = new long[64];
+
+        int position = text.position();
+        while(position < text.limit()){
+            int codePoint = readUtf8(text, position);
+            position += getUtf8Length(codePoint);
+
+            codePoint = filterCodePoint(codePoint, lettersOnly);
+            if(codePoint == -1){
+                continue;
+            }
+            int symbol = alphabet.addCodePoint(codePoint);
+            if(symbol == frequencies.length){
+                frequencies = Arrays.copyOf(frequencies, frequencies.length * 2);
+            }
+            frequencies[symbol]++;
+        }
+
+        SymbolModel model = new SymbolModel(alphabet.size + 1); // One more symbol for end-of-block
+        System.arraycopy(frequencies, 0, model.frequencies, 0, alphabet.size);
+        model.frequencies[alphabet.size] = 1;
+        Huffman.setupLengthLimitedHuffmanCodes(model, MAX_CODE_LENGTH);
+
+        return new CodePointHuffman(alphabet, model, lettersOnly);
+    }
+
+    /**
+     * Counts the code points of a UTF-8 file, which is memory-mapped instead of read into a <Code>String</Code>, and builds Huffman codes for them.
+     *
+     * @param fileName     the file name
+     * @param lettersOnly  whether only letters are counted, made lower case
+     * @return             codec for the code points of the file
+     * @throws Exception   if the file can not be read, is larger than 2 GB, is not valid UTF-8 or has too many distinct code points
+     */
+
+    public static CodePointHuffman fromFile(String fileName, boolean lettersOnly) throws Exception{
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+
+        try{
+            FileChannel channel = file.getChannel();
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException("File " + fileName + " is larger than 2 GB");
+            }
+            return fromText(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), lettersOnly);
+        }finally{
+            file.close();
+        }
+    }
+
+    /**
+     * Compresses UTF-8 text with codes built from its own code points.
+     *
+     * @param text         UTF-8 bytes
+     * @param lettersOnly  whether only letters are kept, made lower case
+     * @return             alphabet, codes, end-of-block marker and padding marker
+     * @throws Exception   if <Code>text</Code> is not valid UTF-8 or has too many distinct code points
+     */
+
+    public static byte[] compress(byte[] text, boolean lettersOnly) throws Exception{
+        return fromText(ByteBuffer.wrap(text), lettersOnly).encode(ByteBuffer.wrap(text));
+    }
+
+    /**
+     * Encodes UTF-8 text together with the alphabet and code lengths needed to decode it.
+     *
+     * @param text       UTF-8 bytes from the position to the limit of the buffer. The position is not changed
+     * @return           alphabet, codes, end-of-block marker and padding marker
+     * @throws Exception if <Code>text</Code> is not valid UTF-8 or has a code point that is not in the alphabet
+     */
+
+    public byte[] encode(ByteBuffer text) throws Exception{
+        BitStreamWriter writer = new BitStreamWriter();
+
+        // Header: alphabet and code lengths
+        writer.writeBits(alphabet.size, ALPHABET_SIZE_BITS);
+        for(int symbol = 0; symbol < alphabet.size; symbol++){
+            writer.writeBits(alphabet.getCodePoint(symbol), CODE_POINT_BITS);
+            writer.writeBits(model.codeLengths[symbol], CODE_LENGTH_BITS);
+        }
+        writer.writeBits(model.codeLengths[alphabet.size], CODE_LENGTH_BITS);
+
+        long[] codeBits = model.codeBits;
+        byte[] codeLengths = model.codeLengths;
+        int position = text.position();
+        while(position < text.limit()){
+            int codePoint = readUtf8(text, position);
+            position += getUtf8Length(codePoint);
+
+            codePoint = filterCodePoint(codePoint, lettersOnly);
+            if(codePoint == -1){
+                continue;
+            }
+            int symbol = alphabet.getSymbol(codePoint);
+            if(symbol == -1 || codeLengths[symbol] == 0){
+                throw new Exception("Code point U+" + Integer.toHexString(codePoint).toUpperCase() + " does not have a code");
+            }
+            writer.writeBits(codeBits[symbol], codeLengths[symbol]);
+        }
+        model.writeSymbol(writer, alphabet.size); // End-of-block
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes the output of <Code>encode()</Code> back to UTF-8 text.
+     *
+     * @param encoded    alphabet, codes, end-of-block marker and padding marker
+     * @return           UTF-8 bytes
+     * @throws Exception if <Code>encoded</Code> is not valid
+     */
+
+    public static byte[] decode(byte[] encoded) throws Exception{
+        BitStreamReader reader = new BitStreamReader(encoded);
+
+        // Rebuild the alphabet and the canonical codes from the header
+        CodePointAlphabet alphabet = new CodePointAlphabet();
+        int alphabetSize = reader.readBits(ALPHABET_SIZE_BITS);
+        if(alphabetSize >= SymbolModel.MAX_SYMBOLS){
+            throw new Exception("Alphabet of " + alphabetSize + " code points is too large");
+        }
+        SymbolModel model = new SymbolModel(alphabetSize + 1);
+        for(int symbol = 0; symbol < alphabetSize; symbol++){
+            if(alphabet.addCodePoint(reader.readBits(CODE_POINT_BITS)) != symbol){
+                throw new Exception("Alphabet has a code point more than once");
+            }
+            model.codeLengths[symbol] = (byte)reader.readBits(CODE_LENGTH_BITS);
+        }
+        model.codeLengths[alphabetSize] = (byte)reader.readBits(CODE_LENGTH_BITS);
+        if(reader.getRemainingBits() < 0){
+            throw new Exception("Input ends inside the alphabet");
+        }
+        model.assignCanonicalCodes();
+
+        CodePointHuffman codePointHuffman = new CodePointHuffman(alphabet, model, false);
+        byte[] result = new byte[Math.max(16, encoded.length * 2)];
+        int length = codePointHuffman.decode(reader, result, 0);
+        while(length < 0){
+            // "result" is full, continue decoding into a larger array
+            length = -length - 1;
+            result = Arrays.copyOf(result, result.length * 2);
+            length = codePointHuffman.decode(reader, result, length);
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Decodes code points as UTF-8 into <Code>output</Code> until the end-of-block symbol is read or <Code>output</Code> is full.
+     *
+     * @param reader     input
+     * @param output     array that receives the UTF-8 bytes
+     * @param offset     index in <Code>output</Code> of the first decoded byte
+     * @return           index after the last decoded byte, or <Code>-(index + 1)</Code> if <Code>output</Code> was too small for the next code point
+     * @throws Exception if the codes do not correspond to the code lengths
+     */
+
+    public int decode(BitStreamReader reader, byte[] output, int offset) throws Exception{
+        if(decodingTable == null){
+            decodingTable = model.buildDecodingTable();
+        }
+
+        while(true){
+            if(output.length - offset < 4){
+                return -(offset + 1); // Not checked after decoding so no symbol is lost
+            }
+            int symbol = decodingTable.decodeSymbol(reader);
+            if(symbol == alphabet.size){
+                return offset;
+            }else if(symbol == -1){
+                throw new Exception("Codes do not correspond to the alphabet at bit " + reader.getBitPosition());
+            }
+            offset = writeUtf8(alphabet.getCodePoint(symbol), output, offset);
+        }
+    }
+
+    /**
+     * Returns the alphabet of this codec.
+     *
+     * @return code point of every symbol
+     */
+
+    public CodePointAlphabet getAlphabet(){
+        return alphabet;
+    }
+
+    /**
+     * Returns the model with the frequencies and codes of this codec. Its last symbol is the end-of-block symbol.
+     *
+     * @return symbol model with <Code>alphabet.size + 1</Code> symbols
+     */
+
+    public SymbolModel getModel(){
+        return model;
+    }
+
+    /**
+     * Applies the letter filter to a code point.
+     *
+     * @param codePoint    code point of the text
+     * @param lettersOnly  whether only letters are kept, made lower case
+     * @return             the code point to encode, or -1 if it is removed
+     */
+
+    private static int filterCodePoint(int codePoint, boolean lettersOnly){
+        if(!lettersOnly){
+            return codePoint;
+        }
+        return Character.isLetter(codePoint) ? Character.toLowerCase(codePoint) : -1;
+    }
+
+    /**
+     * Reads the UTF-8 code point that starts at <Code>position</Code>. Its length in bytes is <Code>getUtf8Length(codePoint)</Code>.
+     *
+     * @param buffer     UTF-8 bytes
+     * @param position   index of the first byte of the code point
+     * @return           the code point
+     * @throws Exception if the bytes are not valid UTF-8: a wrong first byte, a missing continuation byte, a too long
+     *                   form of a code point or a surrogate
+     */
+
+    static int readUtf8(ByteBuffer buffer, int position) throws Exception{
+        int first = buffer.get(position) & 0xFF;
+        if(first < 0x80){
+            return first; // ASCII, the most common case
+        }
+
+        int length;
+        int codePoint;
+        if(first >= 0xC2 && first <= 0xDF){
+            length = 2;
+            codePoint = first & 0x1F;
+        }else if(first >= 0xE0 && first <= 0xEF){
+            length = 3;
+            codePoint = first & 0x0F;
+        }else if(first >= 0xF0 && first <= 0xF4){
+            length = 4;
+            codePoint = first & 0x07;
+        }else{
+            throw new Exception("Input is not valid UTF-8 at byte " + position);
+        }
+        if(position + length > buffer.limit()){
+            throw new Exception("Input ends inside a UTF-8 code point at byte " + position);
+        }
+
+        for(int i = 1; i < length; i++){
+            int next = buffer.get(position + i) & 0xFF;
+            if((next & 0xC0) != 0x80){
+                throw new Exception("Input is not valid UTF-8 at byte " + (position + i));
+            }
+            codePoint = (codePoint << 6) | (next & 0x3F);
+        }
+
+        // A code point must use its shortest form so that "getUtf8Length()" gives back "length"
+        if(getUtf8Length(codePoint) != length || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)){
+            throw new Exception("Input is not valid UTF-8 at byte " + position);
+        }
+
+        return codePoint;
+    }
+
+    /**
+     * Returns how many bytes <Code>codePoint</Code> takes in UTF-8.
+     *
+     * @param codePoint  a valid code point
+     * @return           length from 1 to 4
+     */
+
+    static int getUtf8Length(int codePoint){
+        if(codePoint < 0x80){
+            return 1;
+        }else if(codePoint < 0x800){
+            return 2;
+        }else if(codePoint < 0x10000){
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * Writes <Code>codePoint</Code> as UTF-8.
+     *
+     * @param codePoint  a valid code point
+     * @param output     array with room for <Code>getUtf8Length(codePoint)</Code> bytes at <Code>offset</Code>
+     * @param offset     index of the first byte
+     * @return           index after the last byte
+     */
+
+    static int writeUtf8(int codePoint, byte[] output, int offset){
+        if(codePoint < 0x80){
+            output[offset++] = (byte)codePoint;
+        }else if(codePoint < 0x800){
+            output[offset++] = (byte)(0xC0 | (codePoint >>> 6));
+            output[offset++] = (byte)(0x80 | (codePoint & 0x3F));
+        }else if(codePoint < 0x10000){
+            output[offset++] = (byte)(0xE0 | (codePoint >>> 12));
+            output[offset++] = (byte)(0x80 | ((codePoint >>> 6) & 0x3F));
+            output[offset++] = (byte)(0x80 | (codePoint & 0x3F));
+        }else{
+            output[offset++] = (byte)(0xF0 | (codePoint >>> 18));
+            output[offset++] = (byte)(0x80 | ((codePoint >>> 12) & 0x3F));
+            output[offset++] = (byte)(0x80 | ((codePoint >>> 6) & 0x3F));
+            output[offset++] = (byte)(0x80 | (codePoint & 0x3F));
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,277 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps recently built codebooks so that the same model does not have to be read from a file and built into a Huffman tree
+ * again. A codebook is found either by the file it was read from or by its frequency table:
+ * <ul>
+ * <li>File key - the canonical path of the file with its last-modified time and length, and whether the file is raw text.
+ * Changing the file gives a new key, so an old codebook is never used for a changed file (unless the change keeps both the
+ * time and the length).
+ * <li>Frequency key - every key of <Code>dictionary</Code> with its frequency and <Code>leftPosition</Code>, sorted by key.
+ * Frequencies are divided by their greatest common divisor because scaling every frequency by the same amount gives the same
+ * Huffman tree. A key is compared in full on a lookup, its hash only picks the bucket.
+ * </ul>
+ * The cache holds at most <Code>capacity</Code> codebooks and removes the least recently used one when it is full. Every
+ * method is <Code>synchronized</Code> so one cache can be shared by many threads, and a cached codebook is never changed:
+ * it is copied into a <Code>Compression</Code> object on every hit.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CodebookCache{
+    public static final int DEFAULT_CAPACITY = 64;
+    public static final CodebookCache SHARED = new CodebookCache(DEFAULT_CAPACITY); // Used by Huffman.setupHuffmanCodesFromFile() and setupCachedHuffmanCodes()
+
+    private final LinkedHashMap<Object, Codebook> codebooks;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * CodebookCache constructor.
+     *
+     * @param capacity  most codebooks kept
+     */
+
+    public CodebookCache(final int capacity){
+        // An access-ordered map keeps the least recently used codebook first
+        codebooks = new LinkedHashMap<Object, Codebook>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Codebook> eldest){
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the key of a file's codebook.
+     *
+     * @param fileName           the file name
+     * @param isAlphabetRawText  indicates whether or not the file's contents is raw text
+     * @return                   the key, or <Code>null</Code> if the file does not exist so that it is not cached
+     */
+
+    public static Object getFileKey(String fileName, boolean isAlphabetRawText){
+        File file = new File(fileName);
+        if(!file.isFile()){
+            return null;
+        }
+
+        String path;
+        try{
+            path = file.getCanonicalPath();
+        }catch (IOException e){
+            path = file.getAbsolutePath();
+        }
+
+        return path + "|" + file.lastModified() + "|" + file.length() + "|" + isAlphabetRawText;
+    }
+
+    /**
+     * Returns the key of the codebook built from the frequencies in <Code>dictionary</Code>.
+     *
+     * @param dictionary  keys and their frequencies
+     * @return            the key
+     */
+
+    public static Object getFrequencyKey(HashMap<String, Code> dictionary){
+        return new FrequencyTable(dictionary);
+    }
+
+    /**
+     * Finds a codebook and marks it as the most recently used.
+     *
+     * @param key  key from <Code>getFileKey()</Code> or <Code>getFrequencyKey()</Code>
+     * @return     the codebook or <Code>null</Code> if it is not in the cache
+     */
+
+    public synchronized Codebook get(Object key){
+        Codebook codebook = codebooks.get(key);
+        if(codebook == null){
+            missCount++;
+        }else{
+            hitCount++;
+        }
+        return codebook;
+    }
+
+    /**
+     * Adds a codebook, removing the least recently used one if the cache is full.
+     *
+     * @param key       key from <Code>getFileKey()</Code> or <Code>getFrequencyKey()</Code>
+     * @param codebook  the codebook
+     */
+
+    public synchronized void put(Object key, Codebook codebook){
+        codebooks.put(key, codebook);
+    }
+
+    /**
+     * Removes every codebook.
+     */
+
+    public synchronized void clear(){
+        codebooks.clear();
+    }
+
+    public synchronized int size(){
+        return codebooks.size();
+    }
+
+    public synchronized long getHitCount(){
+        return hitCount;
+    }
+
+    public synchronized long getMissCount(){
+        return missCount;
+    }
+
+    /**
+     * A copy of a <Code>dictionary</Code> with its codes and the <Code>originalAlphabetOrder</Code> that goes with it.
+     */
+
+    public static class Codebook{
+        private final String[] alphabetOrder;
+        private final String[] keys;
+        private final long[] frequencies;
+        private final int[] leftPositions;
+        private final String[] codes;
+
+        /**
+         * Codebook constructor which copies every key, frequency and code.
+         *
+         * @param dictionary             keys with their codes
+         * @param originalAlphabetOrder  order of the keys in the input
+         */
+
+        public Codebook(HashMap<String, Code> dictionary, ArrayList<String> originalAlphabetOrder){
+            alphabetOrder = originalAlphabetOrder.toArray(new String[originalAlphabetOrder.size()]);
+            keys = new String[dictionary.size()];
+            frequencies = new long[dictionary.size()];
+            leftPositions = new int[dictionary.size()];
+            codes = new String[dictionary.size()];
+
+            int i = 0;
+            for(Map.Entry<String, Code> entry: dictionary.entrySet()){
+                keys[i] = entry.getKey();
+                frequencies[i] = entry.getValue().frequency;
+                leftPositions[i] = entry.getValue().leftPosition;
+                codes[i] = entry.getValue().code;
+                i++;
+            }
+        }
+
+        /**
+         * Gives <Code>compression</Code> a new <Code>dictionary</Code> and <Code>originalAlphabetOrder</Code> equal to this codebook.
+         *
+         * @param compression  object that receives the codebook
+         */
+
+        public void copyTo(Compression compression){
+            HashMap<String, Code> dictionary = new HashMap<String, Code>();
+            for(int i = 0; i < keys.length; i++){
+                Code symbol = new Code(keys[i], frequencies[i], leftPositions[i], null);
+                symbol.code = codes[i];
+                dictionary.put(keys[i], symbol);
+            }
+
+            ArrayList<String> originalAlphabetOrder = new ArrayList<String>(alphabetOrder.length);
+            Collections.addAll(originalAlphabetOrder, alphabetOrder);
+
+            compression.dictionary = dictionary;
+            compression.originalAlphabetOrder = originalAlphabetOrder;
+        }
+
+        /**
+         * Sets the code of every key of <Code>dictionary</Code> that is in this codebook, keeping its frequencies.
+         *
+         * @param dictionary  dictionary that receives the codes
+         */
+
+        public void copyCodesTo(HashMap<String, Code> dictionary){
+            for(int i = 0; i < keys.length; i++){
+                Code symbol = dictionary.get(keys[i]);
+                if(symbol != null){
+                    symbol.code = codes[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Frequency table used as a key. Equal tables give the same Huffman codes.
+     */
+
+    private static class FrequencyTable{
+        private final String[] keys;
+        private final long[] frequencies;
+        private final int[] leftPositions;
+        private final int hash;
+
+        public FrequencyTable(HashMap<String, Code> dictionary){
+            keys = dictionary.keySet().toArray(new String[dictionary.size()]);
+            Arrays.sort(keys);
+            frequencies = new long[keys.length];
+            leftPositions = new int[keys.length];
+
+            long divisor = 0;
+            for(int i = 0; i < keys.length; i++){
+                Code symbol = dictionary.get(keys[i]);
+                frequencies[i] = symbol.frequency;
+                leftPositions[i] = symbol.leftPosition;
+                divisor = greatestCommonDivisor(divisor, symbol.frequency);
+            }
+            if(divisor > 1){
+                for(int i = 0; i < frequencies.length; i++){
+                    frequencies[i] /= divisor;
+                }
+            }
+
+            hash = 31 * (31 * Arrays.hashCode(keys) + Arrays.hashCode(frequencies)) + Arrays.hashCode(leftPositions);
+        }
+
+        private static long greatestCommonDivisor(long first, long second){
+            first = Math.abs(first);
+            second = Math.abs(second);
+            while(second != 0){
+                long remainder = first % second;
+                first = second;
+                second = remainder;
+            }
+            return first;
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other){
+            if(!(other instanceof FrequencyTable)){
+                return false;
+            }
+            FrequencyTable table = (FrequencyTable)other;
+            return hash == table.hash && Arrays.equals(keys, table.keys) && Arrays.equals(frequencies, table.frequencies)
+                    && Arrays.equals(leftPositions, table.leftPositions);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds how many bits a text takes when encoded with codebooks other than its own, for example <Code>problem11InputB.txt</Code>
+ * with the English codes of <Code>problem11Alphabet.txt</Code>, and picks the cheapest one. This makes it possible to encode
+ * many inputs with a few shared codebooks instead of building and storing a new codebook for every input.
+ * <p>
+ * Every key met in a codebook gets an index, and every codebook is kept as an <Code>int[]</Code> of code lengths by index,
+ * where 0 means the key has no code. A text is turned into a <Code>long[]</Code> of frequencies by the same index once, after
+ * which its cost with a codebook is the sum of frequency * code length over two primitive arrays, a loop without branches
+ * that the JIT compiler can unroll and vectorize. A codebook that has no code for a key of the text can not encode it.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CodebookCostEstimator{
+    public static final long CAN_NOT_ENCODE = -1;
+
+    private HashMap<String, Integer> symbols = new HashMap<String, Integer>();
+    private ArrayList<String> names = new ArrayList<String>();
+    private ArrayList<int[]> codeLengths = new ArrayList<int[]>();
+
+    /**
+     * Adds a codebook.
+     *
+     * @param name        name of the codebook, for example the file it was built from
+     * @param codebook    object with codes in its <Code>dictionary</Code>
+     * @return            index of the codebook
+     * @throws Exception  if a key of the codebook does not have a code
+     */
+
+    public int addCodebook(String name, Compression codebook) throws Exception{
+        for(Map.Entry<String, Code> entry: codebook.dictionary.entrySet()){
+            if(entry.getValue().code == null || entry.getValue().code.length() == 0){
+                throw new Exception("Key \"" + entry.getKey() + "\" of codebook " + name + " does not have a code");
+            }
+            if(!symbols.containsKey(entry.getKey())){
+                symbols.put(entry.getKey(), symbols.size());
+            }
+        }
+
+        // Codebooks added before have no code for the new keys
+        for(int i = 0; i < codeLengths.size(); i++){
+            codeLengths.set(i, Arrays.copyOf(codeLengths.get(i), symbols.size()));
+        }
+
+        int[] lengths = new int[symbols.size()];
+        for(Map.Entry<String, Code> entry: codebook.dictionary.entrySet()){
+            lengths[symbols.get(entry.getKey())] = entry.getValue().code.length();
+        }
+
+        names.add(name);
+        codeLengths.add(lengths);
+        return names.size() - 1;
+    }
+
+    public int getCodebookCount(){
+        return names.size();
+    }
+
+    public String getName(int codebookIndex){
+        return names.get(codebookIndex);
+    }
+
+    /**
+     * Finds how many bits <Code>text</Code> takes with every codebook.
+     *
+     * @param text  object whose <Code>dictionary</Code> holds the frequencies of the text's keys, for example after
+     *              <Code>setupDictionaryFromFile(fileName, true)</Code>
+     * @return      bits with every codebook, or <Code>CAN_NOT_ENCODE</Code> for a codebook that has no code for a key of the text
+     */
+
+    public long[] calculateCosts(Compression text){
+        long[] frequencies = new long[symbols.size()];
+        long unknownFrequency = 0; // Frequency of keys that no codebook has
+
+        for(Map.Entry<String, Code> entry: text.dictionary.entrySet()){
+            Integer symbol = symbols.get(entry.getKey());
+            if(symbol != null){
+                frequencies[symbol] += entry.getValue().frequency;
+            }else{
+                unknownFrequency += entry.getValue().frequency;
+            }
+        }
+
+        long[] costs = new long[codeLengths.size()];
+        for(int i = 0; i < costs.length; i++){
+            costs[i] = unknownFrequency > 0 ? CAN_NOT_ENCODE : calculateCost(frequencies, codeLengths.get(i));
+        }
+
+        return costs;
+    }
+
+    /**
+     * Finds the codebook that encodes <Code>text</Code> in the fewest bits.
+     *
+     * @param text  object whose <Code>dictionary</Code> holds the frequencies of the text's keys
+     * @return      index of the cheapest codebook, or -1 if no codebook can encode the text
+     */
+
+    public int findCheapestCodebook(Compression text){
+        return findCheapest(calculateCosts(text));
+    }
+
+    /**
+     * Finds the lowest cost that is not <Code>CAN_NOT_ENCODE</Code>.
+     *
+     * @param costs  cost of every codebook as returned by <Code>calculateCosts()</Code>
+     * @return       index of the cheapest codebook, or -1 if no codebook can encode the text
+     */
+
+    private static int findCheapest(long[] costs){
+        int cheapest = -1;
+
+        for(int i = 0; i < costs.length; i++){
+            if(costs[i] != CAN_NOT_ENCODE && (cheapest == -1 || costs[i] < costs[cheapest])){
+                cheapest = i;
+            }
+        }
+
+        return cheapest;
+    }
+
+    /**
+     * Decides between the cheapest shared codebook and a codebook built for <Code>text</Code> alone, which gives the fewest bits
+     * for the text but has to be stored with it.
+     *
+     * @param text          object whose <Code>dictionary</Code> holds the frequencies of the text's keys
+     * @param codebookBits  bits it takes to store a codebook with the text
+     * @return              index of the codebook to use, or -1 if building a codebook for the text is cheaper or no codebook can encode it
+     * @throws Exception    if the text's own Huffman codes can not be built
+     */
+
+    public int chooseCodebook(Compression text, long codebookBits) throws Exception{
+        long[] costs = calculateCosts(text);
+        int cheapest = findCheapest(costs);
+        if(cheapest == -1){
+            return -1;
+        }
+
+        return costs[cheapest] <= calculateOptimalCost(text) + codebookBits ? cheapest : -1;
+    }
+
+    /**
+     * Finds how many bits <Code>text</Code> takes with its own Huffman codes, which no other codebook can beat.
+     *
+     * @param text        object whose <Code>dictionary</Code> holds the frequencies of the text's keys
+     * @return            sum of frequency * code length with the text's own Huffman codes
+     * @throws Exception  if the codes can not be built
+     */
+
+    public static long calculateOptimalCost(Compression text) throws Exception{
+        SymbolModel model = SymbolModel.fromDictionary(text.dictionary);
+        Huffman.setupHuffmanCodes(model);
+        return model.calculateEncodedBitLength();
+    }
+
+    /**
+     * Finds the sum of frequency * code length. Keys without a code have a length of 0, so their frequency is added up
+     * separately to find out whether the codebook can encode the text at all.
+     *
+     * @param frequencies  frequency of every key by index
+     * @param lengths      code length of every key by index
+     * @return             the sum, or <Code>CAN_NOT_ENCODE</Code> if a key with a frequency above 0 has no code
+     */
+
+    private static long calculateCost(long[] frequencies, int[] lengths){
+        long cost = 0;
+        long uncoveredFrequency = 0;
+
+        for(int i = 0; i < frequencies.length; i++){
+            cost += frequencies[i] * lengths[i];
+            uncoveredFrequency |= lengths[i] == 0 ? frequencies[i] : 0;
+        }
+
+        return uncoveredFrequency != 0 ? CAN_NOT_ENCODE : cost;
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Stores codebooks in few bits, so that formats with many small codebooks (one per group of segments or one per context) do
+ * not spend more on the codebooks than they save on the codes. The format is the one bzip2 uses:
+ * <ul>
+ * <li>Symbol map - which symbols are used at all. The symbols are cut into groups of 16. One bit per group tells whether any
+ * symbol of the group is used, then every used group gets one bit per symbol. Unused symbols have no code in any codebook.
+ * <li>Code lengths - for every used symbol the difference from the previous code length: "10" for +1, "11" for -1 and "0" when
+ * the length is reached. The first length is written in <Code>LENGTH_BITS</Code> bits. Lengths of neighboring symbols tend to be
+ * close, so most symbols take one to three bits.
+ * </ul>
+ * Every codebook written with <Code>writeCodeLengths()</Code> must give a code to every symbol of the symbol map.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CodebookSerializer{
+    public static final int MAX_CODE_LENGTH = 31;
+    private static final int LENGTH_BITS = 5;
+    private static final int GROUP_SIZE = 16;
+    private static final int SYMBOL_COUNT_BITS = 32;
+
+    /**
+     * Finds the symbols that are used.
+     *
+     * @param frequencies  frequency of every symbol of the alphabet
+     * @return             symbols with a frequency above 0 in increasing order, as expected by <Code>writeSymbolMap()</Code>
+     */
+
+    public static int[] findUsedSymbols(long[] frequencies){
+        int usedCount = 0;
+        for(long frequency: frequencies){
+            if(frequency > 0){
+                usedCount++;
+            }
+        }
+
+        int[] usedSymbols = new int[usedCount];
+        usedCount = 0;
+        for(int symbol = 0; symbol < frequencies.length; symbol++){
+            if(frequencies[symbol] > 0){
+                usedSymbols[usedCount++] = symbol;
+            }
+        }
+        return usedSymbols;
+    }
+
+    /**
+     * Writes the amount of symbols that follow the codebooks.
+     *
+     * @param writer       output
+     * @param symbolCount  amount of encoded symbols
+     */
+
+    public static void writeSymbolCount(BitStreamWriter writer, int symbolCount){
+        writer.writeBits(symbolCount, SYMBOL_COUNT_BITS);
+    }
+
+    /**
+     * Reads an amount of symbols written by <Code>writeSymbolCount()</Code>.
+     *
+     * @param reader      input
+     * @return            amount of encoded symbols
+     * @throws Exception  if the amount is not valid
+     */
+
+    public static int readSymbolCount(BitStreamReader reader) throws Exception{
+        long symbolCount = ((long)reader.readBits(16) << 16) | reader.readBits(16);
+        if(symbolCount > Integer.MAX_VALUE || reader.getRemainingBits() < 0){
+            throw new Exception("Amount of symbols is not valid");
+        }
+        return (int)symbolCount;
+    }
+
+    /**
+     * Writes which symbols are used.
+     *
+     * @param writer       output
+     * @param usedSymbols  used symbols in increasing order
+     * @param symbolCount  size of the alphabet
+     */
+
+    public static void writeSymbolMap(BitStreamWriter writer, int[] usedSymbols, int symbolCount){
+        boolean[] used = new boolean[symbolCount];
+        for(int symbol: usedSymbols){
+            used[symbol] = true;
+        }
+
+        int groupCount = (symbolCount + GROUP_SIZE - 1) / GROUP_SIZE;
+        boolean[] groupUsed = new boolean[groupCount];
+        for(int group = 0; group < groupCount; group++){
+            for(int symbol = group * GROUP_SIZE; symbol < Math.min(symbolCount, (group + 1) * GROUP_SIZE); symbol++){
+                groupUsed[group] |= used[symbol];
+            }
+            writer.writeBits(groupUsed[group] ? 1 : 0, 1);
+        }
+
+        for(int group = 0; group < groupCount; group++){
+            if(groupUsed[group]){
+                for(int symbol = group * GROUP_SIZE; symbol < Math.min(symbolCount, (group + 1) * GROUP_SIZE); symbol++){
+                    writer.writeBits(used[symbol] ? 1 : 0, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a symbol map written by <Code>writeSymbolMap()</Code>.
+     *
+     * @param reader       input
+     * @param symbolCount  size of the alphabet
+     * @return             used symbols in increasing order
+     * @throws Exception   if the input ends inside the symbol map
+     */
+
+    public static int[] readSymbolMap(BitStreamReader reader, int symbolCount) throws Exception{
+        int groupCount = (symbolCount + GROUP_SIZE - 1) / GROUP_SIZE;
+        boolean[] groupUsed = new boolean[groupCount];
+        for(int group = 0; group < groupCount; group++){
+            groupUsed[group] = reader.readBits(1) == 1;
+        }
+
+        int[] symbols = new int[symbolCount];
+        int usedCount = 0;
+        for(int group = 0; group < groupCount; group++){
+            if(groupUsed[group]){
+                for(int symbol = group * GROUP_SIZE; symbol < Math.min(symbolCount, (group + 1) * GROUP_SIZE); symbol++){
+                    if(reader.readBits(1) == 1){
+                        symbols[usedCount++] = symbol;
+                    }
+                }
+            }
+        }
+        if(reader.getRemainingBits() < 0){
+            throw new Exception("Input ends inside the symbol map");
+        }
+
+        int[] usedSymbols = new int[usedCount];
+        System.arraycopy(symbols, 0, usedSymbols, 0, usedCount);
+        return usedSymbols;
+    }
+
+    /**
+     * Writes the code lengths of the used symbols as differences from the previous length.
+     *
+     * @param writer       output
+     * @param codeLengths  code length of every symbol of the alphabet
+     * @param usedSymbols  used symbols in increasing order, as in the symbol map
+     * @throws Exception   if a used symbol has no code or a code is longer than <Code>MAX_CODE_LENGTH</Code>
+     */
+
+    public static void writeCodeLengths(BitStreamWriter writer, byte[] codeLengths, int[] usedSymbols) throws Exception{
+        int currentLength = usedSymbols.length > 0 ? codeLengths[usedSymbols[0]] : 0;
+        writer.writeBits(currentLength, LENGTH_BITS);
+
+        for(int symbol: usedSymbols){
+            int length = codeLengths[symbol];
+            if(length < 1 || length > MAX_CODE_LENGTH){
+                throw new Exception("Code length " + length + " of symbol " + symbol + " can not be stored");
+            }
+            while(currentLength < length){
+                writer.writeBits(2, 2); // "10"
+                currentLength++;
+            }
+            while(currentLength > length){
+                writer.writeBits(3, 2); // "11"
+                currentLength--;
+            }
+            writer.writeBits(0, 1);
+        }
+    }
+
+    /**
+     * Reads code lengths written by <Code>writeCodeLengths()</Code>.
+     *
+     * @param reader       input
+     * @param codeLengths  array that receives the code length of every used symbol. Other symbols are not changed
+     * @param usedSymbols  used symbols in increasing order, as in the symbol map
+     * @throws Exception   if the input ends inside the code lengths or a length is out of range
+     */
+
+    public static void readCodeLengths(BitStreamReader reader, byte[] codeLengths, int[] usedSymbols) throws Exception{
+        int currentLength = reader.readBits(LENGTH_BITS);
+
+        for(int symbol: usedSymbols){
+            while(reader.readBits(1) == 1){
+                currentLength += reader.readBits(1) == 0 ? 1 : -1;
+                if(currentLength < 1 || currentLength > MAX_CODE_LENGTH || reader.getRemainingBits() <= 0){
+                    throw new Exception("Code lengths are not valid");
+                }
+            }
+            codeLengths[symbol] = (byte)currentLength;
+        }
+        if(reader.getRemainingBits() < 0){
+            throw new Exception("Input ends inside the code lengths");
+        }
+    }
+}
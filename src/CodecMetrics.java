@@ -0,0 +1,373 @@
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts what the codecs do: bytes and symbols going in and out, bits per symbol, the time spent in every phase, how often a
+ * codebook is rebuilt and how often decoding fails. One instance, <Code>CodecMetrics.INSTANCE</Code>, is shared by every codec
+ * and can be read through JMX after <Code>registerMBean()</Code>.
+ * <p>
+ * Counters are updated once per operation (a whole input, block or codebook) and never per symbol, so the cost is a few
+ * <Code>AtomicLong</Code> additions and two <Code>System.nanoTime()</Code> calls per operation. Metrics are on by default and
+ * <Code>setEnabled(false)</Code> turns them off.
+ * <p>
+ * Encoded bytes are the codes packed into bytes, also for the methods that write codes as "0" and "1" characters, so that
+ * <Code>getEncodedBytesOut()</Code> is the size the input would have compressed. For text, input and output bytes are characters.
+ * <p>
+ * A <Code>Listener</Code> receives every timed phase and every decode error as it happens, for example to send them to
+ * Java Flight Recorder as events on a JVM that has it.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CodecMetrics implements CodecMetricsMBean{
+    public static final String OBJECT_NAME = "HuffmanAlgorithm:type=CodecMetrics";
+    public static final CodecMetrics INSTANCE = new CodecMetrics();
+
+    /**
+     * Timed phases of building codes, encoding and decoding.
+     */
+
+    public enum Phase{
+        HISTOGRAM,       // Counting the frequency of every symbol
+        TREE_BUILD,      // Building the Huffman tree or finding the code lengths
+        CODE_ASSIGNMENT, // Giving every symbol its code
+        ENCODE,
+        DECODE
+    }
+
+    /**
+     * Receives metrics as they are recorded. Methods are called in the thread that did the work, so they should be quick.
+     */
+
+    public interface Listener{
+        void phaseCompleted(Phase phase, long durationNanos);
+        void decodeErrorOccurred();
+    }
+
+    private volatile boolean enabled = true;
+    private volatile Listener listener;
+
+    private final AtomicLong encodedBytesIn = new AtomicLong();
+    private final AtomicLong encodedBytesOut = new AtomicLong();
+    private final AtomicLong decodedBytesIn = new AtomicLong();
+    private final AtomicLong decodedBytesOut = new AtomicLong();
+    private final AtomicLong symbolsEncoded = new AtomicLong();
+    private final AtomicLong symbolsDecoded = new AtomicLong();
+    private final AtomicLong bitsEncoded = new AtomicLong();
+    private final AtomicLong bitsDecoded = new AtomicLong();
+    private final AtomicLong histogramBytes = new AtomicLong();
+    private final AtomicLong codebookRebuilds = new AtomicLong();
+    private final AtomicLong decodeErrors = new AtomicLong();
+    private final AtomicLongArray phaseCounts = new AtomicLongArray(Phase.values().length);
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+
+    /**
+     * Registers <Code>INSTANCE</Code> with the platform MBean server under <Code>OBJECT_NAME</Code>. Registering it again does nothing.
+     *
+     * @throws Exception if the MBean can not be registered
+     */
+
+    public static void registerMBean() throws Exception{
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+
+        synchronized(CodecMetrics.class){
+            if(!server.isRegistered(name)){
+                server.registerMBean(INSTANCE, name);
+            }
+        }
+    }
+
+    /**
+     * Sets the listener that receives every timed phase and decode error.
+     *
+     * @param listener  the listener, or <Code>null</Code> for none
+     */
+
+    public void setListener(Listener listener){
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the start time of a phase, to be passed to one of the <Code>record</Code> methods when the phase ends.
+     *
+     * @return <Code>System.nanoTime()</Code>, or 0 if metrics are off
+     */
+
+    public long startTimer(){
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a phase that started at <Code>start</Code> and ends now.
+     *
+     * @param phase  the phase
+     * @param start  value of <Code>startTimer()</Code> when the phase started
+     */
+
+    public void recordPhase(Phase phase, long start){
+        if(start == 0 || !enabled){
+            return;
+        }
+
+        long duration = System.nanoTime() - start;
+        phaseCounts.incrementAndGet(phase.ordinal());
+        phaseNanos.addAndGet(phase.ordinal(), duration);
+
+        Listener currentListener = listener;
+        if(currentListener != null){
+            currentListener.phaseCompleted(phase, duration);
+        }
+    }
+
+    /**
+     * Records the end of counting symbol frequencies.
+     *
+     * @param start  value of <Code>startTimer()</Code> when counting started
+     * @param bytes  amount of bytes counted
+     */
+
+    public void recordHistogram(long start, long bytes){
+        if(start != 0 && enabled){
+            histogramBytes.addAndGet(bytes);
+        }
+        recordPhase(Phase.HISTOGRAM, start);
+    }
+
+    /**
+     * Records the end of building a Huffman tree or code lengths.
+     *
+     * @param start  value of <Code>startTimer()</Code> when building started
+     */
+
+    public void recordTreeBuild(long start){
+        recordPhase(Phase.TREE_BUILD, start);
+    }
+
+    /**
+     * Records the end of giving codes to symbols, which completes a codebook.
+     *
+     * @param start  value of <Code>startTimer()</Code> when codes started to be given
+     */
+
+    public void recordCodeAssignment(long start){
+        if(start != 0 && enabled){
+            codebookRebuilds.incrementAndGet();
+        }
+        recordPhase(Phase.CODE_ASSIGNMENT, start);
+    }
+
+    /**
+     * Records the end of encoding.
+     *
+     * @param start    value of <Code>startTimer()</Code> when encoding started
+     * @param bytesIn  amount of bytes (or characters) of the input
+     * @param symbols  amount of symbols encoded
+     * @param bits     amount of bits of the codes written
+     */
+
+    public void recordEncode(long start, long bytesIn, long symbols, long bits){
+        if(start != 0 && enabled){
+            encodedBytesIn.addAndGet(bytesIn);
+            encodedBytesOut.addAndGet((bits + 7) >>> 3);
+            symbolsEncoded.addAndGet(symbols);
+            bitsEncoded.addAndGet(bits);
+        }
+        recordPhase(Phase.ENCODE, start);
+    }
+
+    /**
+     * Records the end of decoding.
+     *
+     * @param start     value of <Code>startTimer()</Code> when decoding started
+     * @param bits      amount of bits of the codes read
+     * @param symbols   amount of symbols decoded
+     * @param bytesOut  amount of bytes (or characters) of the output
+     */
+
+    public void recordDecode(long start, long bits, long symbols, long bytesOut){
+        if(start != 0 && enabled){
+            decodedBytesIn.addAndGet((bits + 7) >>> 3);
+            decodedBytesOut.addAndGet(bytesOut);
+            symbolsDecoded.addAndGet(symbols);
+            bitsDecoded.addAndGet(bits);
+        }
+        recordPhase(Phase.DECODE, start);
+    }
+
+    /**
+     * Records input that could not be decoded, such as codes that do not correspond to the codebook or a wrong checksum.
+     */
+
+    public void recordDecodeError(){
+        if(!enabled){
+            return;
+        }
+
+        decodeErrors.incrementAndGet();
+
+        Listener currentListener = listener;
+        if(currentListener != null){
+            currentListener.decodeErrorOccurred();
+        }
+    }
+
+    @Override
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled){
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets every counter and timer back to 0.
+     */
+
+    @Override
+    public void reset(){
+        AtomicLong[] counters = {encodedBytesIn, encodedBytesOut, decodedBytesIn, decodedBytesOut, symbolsEncoded, symbolsDecoded,
+                bitsEncoded, bitsDecoded, histogramBytes, codebookRebuilds, decodeErrors};
+        for(AtomicLong counter: counters){
+            counter.set(0);
+        }
+        for(int i = 0; i < phaseCounts.length(); i++){
+            phaseCounts.set(i, 0);
+            phaseNanos.set(i, 0);
+        }
+    }
+
+    @Override
+    public long getEncodedBytesIn(){
+        return encodedBytesIn.get();
+    }
+
+    @Override
+    public long getEncodedBytesOut(){
+        return encodedBytesOut.get();
+    }
+
+    @Override
+    public long getDecodedBytesIn(){
+        return decodedBytesIn.get();
+    }
+
+    @Override
+    public long getDecodedBytesOut(){
+        return decodedBytesOut.get();
+    }
+
+    @Override
+    public long getSymbolsEncoded(){
+        return symbolsEncoded.get();
+    }
+
+    @Override
+    public long getSymbolsDecoded(){
+        return symbolsDecoded.get();
+    }
+
+    @Override
+    public long getBitsEncoded(){
+        return bitsEncoded.get();
+    }
+
+    @Override
+    public long getBitsDecoded(){
+        return bitsDecoded.get();
+    }
+
+    /**
+     * Returns the average code length of all encoded symbols.
+     *
+     * @return bits encoded per symbol encoded, or 0 if nothing was encoded
+     */
+
+    @Override
+    public double getBitsPerSymbol(){
+        long symbols = symbolsEncoded.get();
+        return symbols == 0 ? 0 : (double)bitsEncoded.get() / symbols;
+    }
+
+    @Override
+    public long getHistogramBytes(){
+        return histogramBytes.get();
+    }
+
+    @Override
+    public long getCodebookRebuilds(){
+        return codebookRebuilds.get();
+    }
+
+    @Override
+    public long getDecodeErrors(){
+        return decodeErrors.get();
+    }
+
+    @Override
+    public long getHistogramCount(){
+        return phaseCounts.get(Phase.HISTOGRAM.ordinal());
+    }
+
+    @Override
+    public long getHistogramNanos(){
+        return phaseNanos.get(Phase.HISTOGRAM.ordinal());
+    }
+
+    @Override
+    public long getTreeBuildCount(){
+        return phaseCounts.get(Phase.TREE_BUILD.ordinal());
+    }
+
+    @Override
+    public long getTreeBuildNanos(){
+        return phaseNanos.get(Phase.TREE_BUILD.ordinal());
+    }
+
+    @Override
+    public long getCodeAssignmentCount(){
+        return phaseCounts.get(Phase.CODE_ASSIGNMENT.ordinal());
+    }
+
+    @Override
+    public long getCodeAssignmentNanos(){
+        return phaseNanos.get(Phase.CODE_ASSIGNMENT.ordinal());
+    }
+
+    @Override
+    public long getEncodeCount(){
+        return phaseCounts.get(Phase.ENCODE.ordinal());
+    }
+
+    @Override
+    public long getEncodeNanos(){
+        return phaseNanos.get(Phase.ENCODE.ordinal());
+    }
+
+    @Override
+    public long getDecodeCount(){
+        return phaseCounts.get(Phase.DECODE.ordinal());
+    }
+
+    @Override
+    public long getDecodeNanos(){
+        return phaseNanos.get(Phase.DECODE.ordinal());
+    }
+}
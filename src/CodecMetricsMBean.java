@@ -0,0 +1,50 @@
+/**
+ * Attributes and operations of <Code>CodecMetrics</Code> seen through JMX, for example in JConsole or VisualVM under
+ * "HuffmanAlgorithm:type=CodecMetrics". Times are in nanoseconds and every value counts from the start of the JVM or the
+ * last <Code>reset()</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public interface CodecMetricsMBean{
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+    void reset();
+
+    long getEncodedBytesIn();
+    long getEncodedBytesOut();
+    long getDecodedBytesIn();
+    long getDecodedBytesOut();
+    long getSymbolsEncoded();
+    long getSymbolsDecoded();
+    long getBitsEncoded();
+    long getBitsDecoded();
+    double getBitsPerSymbol();
+    long getHistogramBytes();
+
+    long getCodebookRebuilds();
+    long getDecodeErrors();
+
+    long getHistogramCount();
+    long getHistogramNanos();
+    long getTreeBuildCount();
+    long getTreeBuildNanos();
+    long getCodeAssignmentCount();
+    long getCodeAssignmentNanos();
+    long getEncodeCount();
+    long getEncodeNanos();
+    long getDecodeCount();
+    long getDecodeNanos();
+}
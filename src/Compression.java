@@ -1,9 +1,13 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Compression class handles essential tasks for any data encoding algorithm.
@@ -26,6 +30,8 @@ import java.util.Map;
 */
 
 public class Compression{
+    static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool(); // Shared by every class that runs work in parallel
+
     protected ArrayList<String> originalAlphabetOrder = new ArrayList<String>();
     protected HashMap<String, Code> dictionary = new HashMap<String, Code>();
 
@@ -61,7 +67,8 @@ public class Compression{
     /**
      * Builds <Code>dictionary</Code> from a file. The <Code>dictionary</Code> is built according to the file contents. If <Code>isAlphabetRawText == true</Code>
      * the file contains raw text such as a Shakespearean play or a book. This being the case the file is filtered of non-letter symbols and all symbols are converted to lowercase.
-     * Additionally every symbol would be counted so each key would have a frequency. On the contrary if <Code>isAlphabetRawText == false</Code> then the file's content's is an alphabet
+     * Additionally every symbol would be counted so each key would have a frequency. Counting is done by <Code>FrequencyCounter</Code>, which memory-maps
+     * the file and counts its chunks in parallel instead of reading the whole file into a <Code>String</Code>. On the contrary if <Code>isAlphabetRawText == false</Code> then the file's content's is an alphabet
      * which has every key and frequency separated by a "=" and similarly where each key and frequency together is separated by a ",".
      * <p><b>Example of "alphabet":</b> a=34,b=23,c=9,d=7
      *
@@ -82,25 +89,89 @@ public class Compression{
         originalAlphabetOrder = new ArrayList<String>();
 
         if(isAlphabetRawText){
-            // Find frequency of each letter by incrementing its frequencies every time its met in the input
-            String input = getInputFromFile(fileName);
-            input = removeNonLetterSymbols(input, "");
-            for(int i = 0; i < input.length(); i++){
-                // If dictionary has this key increase its frequency by one otherwise add it to the dictionary
-                String key = input.substring(i, i+1);
-                if(dictionary.containsKey(key)){
-                    dictionary.get(key).frequency++;
-                }else{
-                    dictionary.put(key, new Code(key, 1, i, null));
-                    originalAlphabetOrder.add(key); // Remember original order
+            // Find frequency of each letter by counting the file's bytes in parallel
+            FrequencyCounter counter;
+            try{
+                counter = FrequencyCounter.countFile(fileName);
+            }catch (IOException e){
+                System.out.println(e);
+                return;
+            }
+
+            ArrayList<Code> letters = new ArrayList<Code>();
+            final long[] positions = new long['z' - 'a' + 1]; // Position of every letter, which can be past the range of "leftPosition" in files over 2 GB
+            for(char letter = 'a'; letter <= 'z'; letter++){
+                // Upper case letters are made lower case so both are counted as one key
+                char upperCaseLetter = Character.toUpperCase(letter);
+                long frequency = counter.frequencies[letter] + counter.frequencies[upperCaseLetter];
+                if(frequency > 0){
+                    // Where the letter is first met in the input filtered of non-letter symbols
+                    long position = Long.MAX_VALUE;
+                    if(counter.frequencies[letter] > 0){
+                        position = counter.firstLetterPositions[letter];
+                    }
+                    if(counter.frequencies[upperCaseLetter] > 0){
+                        position = Math.min(position, counter.firstLetterPositions[upperCaseLetter]);
+                    }
+                    positions[letter - 'a'] = position;
+                    letters.add(new Code(String.valueOf(letter), frequency, 0, null));
                 }
             }
+
+            // Remember original order, which is the order in which the letters are first met
+            Collections.sort(letters, new Comparator<Code>() {
+                @Override
+                public int compare(Code first, Code second) {
+                    long firstPosition = positions[first.key.charAt(0) - 'a'];
+                    long secondPosition = positions[second.key.charAt(0) - 'a'];
+                    return firstPosition < secondPosition ? -1 : (firstPosition == secondPosition ? 0 : 1);
+                }
+            });
+            // "leftPosition" is the letter's place in that order
+            for(int i = 0; i < letters.size(); i++){
+                letters.get(i).leftPosition = i;
+            }
+            for(Code letter: letters){
+                dictionary.put(letter.key, letter);
+                originalAlphabetOrder.add(letter.key);
+            }
         }else{
             String input = removeNonLetterSymbols(getInputFromFile(fileName), "0-9=,") ;
             setupDictionaryFromString(input);
         }
     }
 
+    /**
+     * Builds <Code>dictionary</Code> from a raw-text file in UTF-8 like <Code>setupDictionaryFromFile(fileName, true)</Code>, but
+     * letters of every script are kept instead of only "a-z" and "A-Z". Every key is one Unicode code point, made lower case, so a
+     * supplementary letter gives a key of two <Code>char</Code>s. Counting is done by <Code>CodePointHuffman</Code>, which decodes the
+     * file's UTF-8 bytes directly.
+     *
+     * @param fileName the file name
+     */
+
+    public void setupDictionaryFromUtf8File(String fileName){
+        dictionary = new HashMap<String, Code>();
+        originalAlphabetOrder = new ArrayList<String>();
+
+        CodePointHuffman codePointHuffman;
+        try{
+            codePointHuffman = CodePointHuffman.fromFile(fileName, true);
+        }catch (Exception e){
+            System.out.println(e);
+            return;
+        }
+
+        // Symbols are numbered in the order in which the letters are first met, which is the original order
+        CodePointAlphabet alphabet = codePointHuffman.getAlphabet();
+        SymbolModel model = codePointHuffman.getModel();
+        for(int symbol = 0; symbol < alphabet.size; symbol++){
+            String key = alphabet.getKey(symbol);
+            dictionary.put(key, new Code(key, model.frequencies[symbol], symbol, null));
+            originalAlphabetOrder.add(key);
+        }
+    }
+
     /**
      * Reads input from a file.
      *
@@ -114,15 +185,15 @@ public class Compression{
     protected String getInputFromFile(String fileName){
         try{
             BufferedReader reader = new BufferedReader(new FileReader(fileName));
-            String result = "";
+            StringBuilder result = new StringBuilder(); // Appending to a "String" would copy the whole result for every line
             String currentLine = "";
 
             while ((currentLine = reader.readLine()) != null){
-                result += currentLine.toLowerCase().replaceAll(" ", "");
+                result.append(currentLine.toLowerCase().replaceAll(" ", ""));
             }
 
             reader.close();
-            return result;
+            return result.toString();
         }catch (IOException e){
             System.out.println(e);
         }
@@ -152,6 +223,10 @@ public class Compression{
      */
 
     public StringBuilder encodeInput(String input){
+        long start = CodecMetrics.INSTANCE.startTimer();
+        int inputLength = input.length();
+        long bitCount = 0;
+
         StringBuilder encodedInput = new StringBuilder();
         int codeCounter = 0; // Counts amount of codes printed. Used to separate result into lines.
         int index = 0;
@@ -165,57 +240,250 @@ public class Compression{
                 encodedInput.append("\r\n");
                 codeCounter = 0;
             }
-            encodedInput.append(dictionary.get(temp).code); // Appends character code to result
+            String code = dictionary.get(temp).code;
+            encodedInput.append(code); // Appends character code to result
+            bitCount += code.length();
             codeCounter++;
             index++;
         }
 
+        CodecMetrics.INSTANCE.recordEncode(start, inputLength, input.length(), bitCount);
         return encodedInput;
     }
 
     /**
      * Decodes <Code>input</Code> using key's values from <Code>dictionary</Code> HashMap.
-     * First, in order to decode loop through <Code>dictionary</Code>. While looping get
-     * the <Code>substring</Code> of the current key's length from our <Code>input</Code>. If the substring
-     * matches the current key's value then add the current key to the result and continue this process.
-     * This is guaranteed to work as no two Huffman codes have the same prefix.
+     * First the "0"s and "1"s of <Code>input</Code> are packed into bytes and a <Code>DecodingTable</Code> is built from the codes
+     * in <Code>dictionary</Code>. Every symbol is then found with a lookup of the next bits in the table, after which the reader
+     * moves forward by the length of the symbol's code. This is guaranteed to work as no two Huffman codes have the same prefix.
      *
      * @param input input to be decoded
      * @return      <Code>input</Code> decoded with binary codes from <Code>dictionary</Code> HashMap
      *
-     * @throws Exception if code is not found in <Code>dictionary</Code>
+     * @throws Exception if codes in <Code>dictionary</Code> are missing or are not prefix free
      */
 
     public StringBuilder decodeInput(String input) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        long symbolCount = 0;
+        long lineBreakCount = 0;
+
         StringBuilder result = new StringBuilder();
-        boolean codeExistsInDictionary = true; // Flag that indicates if code is in dictionary
         int newLineCounter = 0; // Counts amount of words printed. Used to separate result into lines.
 
-        while ((input.length() > 0) && codeExistsInDictionary){
-            for(Map.Entry<String, Code> entry: dictionary.entrySet()){
-                String entryCode = entry.getValue().code;
-                if((input.length() >= entryCode.length()) && (input.substring(0, entryCode.length()).equals(entryCode))){
-                    if(newLineCounter == 50){
-                        result.append("\r\n");
-                        newLineCounter = 0;
-                    }
-                    result.append(entry.getKey());
-                    input = input.substring(entryCode.length());
-                    codeExistsInDictionary = true;
-                    break;
-                }
-                // If matching code is not found set "codeExistsInDictionary" flag to false so we avoid an infinite loop
+        String[] keys = new String[dictionary.size()];
+        DecodingTable decodingTable = buildDecodingTable(keys);
+
+        // Only the "0"s and "1"s before the first other character can be decoded
+        int bitLength = 0;
+        while(bitLength < input.length() && (input.charAt(bitLength) == '0' || input.charAt(bitLength) == '1')){
+            bitLength++;
+        }
+        BitStreamReader reader = new BitStreamReader(packBits(input, bitLength), bitLength);
+        boolean codeExistsInDictionary = bitLength == input.length(); // Flag that indicates if code is in dictionary
+
+        while(reader.getRemainingBits() > 0){
+            int decodedSymbol = decodingTable.decodeSymbol(reader);
+            if(decodedSymbol == -1){
                 codeExistsInDictionary = false;
+                break;
             }
-            if(codeExistsInDictionary == false){
-                System.out.println("Verify that input is valid as codes do not correspond to dictionary.");
+            if(newLineCounter == 50){
+                result.append("\r\n");
+                newLineCounter = 0;
+                lineBreakCount++;
             }
+            result.append(keys[decodedSymbol]);
             newLineCounter++;
+            symbolCount++;
+        }
+
+        if(codeExistsInDictionary == false){
+            CodecMetrics.INSTANCE.recordDecodeError();
+            System.out.println("Verify that input is valid as codes do not correspond to dictionary.");
+        }
+
+        CodecMetrics.INSTANCE.recordDecode(start, reader.getBitPosition(), symbolCount, result.length() - 2 * lineBreakCount);
+        return result;
+    }
+
+    /**
+     * Encodes <Code>input</Code> into packed bits instead of "0" and "1" characters, so every bit of the codes takes one bit of memory.
+     * Like <Code>encodeInput()</Code> the input is first filtered with <Code>removeNonLetterSymbols()</Code>.
+     * <p>
+     * The result is in the format of <Code>BitStreamWriter.toByteArray()</Code>: the packed bits followed by one byte with the amount
+     * of padding bits. Use <Code>decodeInputFromBytes()</Code> to decode it and <Code>toBinaryString()</Code> to view it as "0"s and "1"s.
+     *
+     * @param input      <Code>input</Code> to be encoded
+     * @return           packed codes of <Code>input</Code> followed by the padding marker
+     * @throws Exception if a character of <Code>input</Code> is not in <Code>dictionary</Code>
+     */
+
+    public byte[] encodeInputToBytes(String input) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        int inputLength = input.length();
+        input = removeNonLetterSymbols(input, ""); // Remove unwanted symbols
+
+        EncodingTable encodingTable = new EncodingTable(dictionary);
+        BitStreamWriter writer = new BitStreamWriter();
+        for(int i = 0; i < input.length(); i++){
+            encodingTable.writeCode(writer, input.charAt(i));
+        }
+
+        CodecMetrics.INSTANCE.recordEncode(start, inputLength, input.length(), writer.getBitLength());
+        return writer.toByteArray();
+    }
+
+    /**
+     * Encodes <Code>input</Code> into packed bits using every key of <Code>dictionary</Code>, including multigrams such as "th" added by
+     * <Code>findBestBinomials()</Code> or <Code>selectBinomials()</Code>, where <Code>encodeInputToBytes()</Code> only uses single letters.
+     * The input is cut into keys by a <Code>MultigramTokenizer</Code>. Like <Code>encodeInput()</Code> the input is first filtered with
+     * <Code>removeNonLetterSymbols()</Code>. The result is decoded by <Code>decodeInputFromBytes()</Code>.
+     *
+     * @param input         <Code>input</Code> to be encoded
+     * @param optimalParse  if true the input is cut into the keys with the shortest total code length, else the longest key is taken at every position
+     * @return              packed codes of <Code>input</Code> followed by the padding marker
+     * @throws Exception    if a key of <Code>dictionary</Code> does not have a code or <Code>input</Code> can not be cut into keys
+     */
+
+    public byte[] encodeInputWithMultigrams(String input, boolean optimalParse) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        int inputLength = input.length();
+        input = removeNonLetterSymbols(input, ""); // Remove unwanted symbols
+
+        String[] keys = new String[dictionary.size()];
+        String[] codes = new String[dictionary.size()];
+        long[] codeLengths = new long[dictionary.size()];
+        int symbol = 0;
+        for(Map.Entry<String, Code> entry: dictionary.entrySet()){
+            if(entry.getValue().code == null){
+                throw new Exception("Key \"" + entry.getKey() + "\" does not have a code");
+            }
+            keys[symbol] = entry.getKey();
+            codes[symbol] = entry.getValue().code;
+            codeLengths[symbol] = codes[symbol].length();
+            symbol++;
+        }
+
+        MultigramTokenizer tokenizer = new MultigramTokenizer(keys, codeLengths);
+        int[] symbols = optimalParse ? tokenizer.tokenizeOptimally(input) : tokenizer.tokenize(input);
+
+        // Codes are written as numbers, only codes longer than 64 bits are written one character at a time
+        long[] codeBits = new long[keys.length];
+        for(int i = 0; i < keys.length; i++){
+            if(codeLengths[i] > 0 && codeLengths[i] <= 64){
+                codeBits[i] = new BigInteger(codes[i], 2).longValue();
+            }
+        }
+
+        BitStreamWriter writer = new BitStreamWriter(input.length() / 2);
+        for(int i: symbols){
+            if(codeLengths[i] <= 64){
+                writer.writeBits(codeBits[i], (int)codeLengths[i]);
+            }else{
+                writer.writeCode(codes[i]);
+            }
+        }
+
+        CodecMetrics.INSTANCE.recordEncode(start, inputLength, symbols.length, writer.getBitLength());
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes packed bits made by <Code>encodeInputToBytes()</Code> using key's values from <Code>dictionary</Code> HashMap.
+     * Unlike <Code>decodeInput()</Code> the result is not separated into lines.
+     *
+     * @param encodedInput packed codes followed by the padding marker
+     * @return             <Code>encodedInput</Code> decoded with binary codes from <Code>dictionary</Code> HashMap
+     * @throws Exception   if the codes do not correspond to <Code>dictionary</Code>
+     */
+
+    public StringBuilder decodeInputFromBytes(byte[] encodedInput) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        long symbolCount = 0;
+
+        StringBuilder result = new StringBuilder();
+        String[] keys = new String[dictionary.size()];
+        DecodingTable decodingTable = buildDecodingTable(keys);
+        BitStreamReader reader = new BitStreamReader(encodedInput);
+
+        while(reader.getRemainingBits() > 0){
+            int decodedSymbol = decodingTable.decodeSymbol(reader);
+            if(decodedSymbol == -1){
+                CodecMetrics.INSTANCE.recordDecodeError();
+                throw new Exception("Codes do not correspond to dictionary at bit " + reader.getBitPosition());
+            }
+            result.append(keys[decodedSymbol]);
+            symbolCount++;
         }
 
+        CodecMetrics.INSTANCE.recordDecode(start, reader.getBitPosition(), symbolCount, result.length());
         return result;
     }
 
+    /**
+     * Shows packed bits made by <Code>encodeInputToBytes()</Code> as "0"s and "1"s. This is meant for debugging as
+     * every bit becomes a whole character.
+     *
+     * @param encodedInput packed codes followed by the padding marker
+     * @return             the bits as "0"s and "1"s
+     * @throws Exception   if <Code>encodedInput</Code> does not end with a valid padding marker
+     */
+
+    public static String toBinaryString(byte[] encodedInput) throws Exception{
+        BitStreamReader reader = new BitStreamReader(encodedInput);
+        StringBuilder result = new StringBuilder();
+
+        while(reader.getRemainingBits() > 0){
+            result.append(reader.readBits(1) == 1 ? '1' : '0');
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Builds a <Code>DecodingTable</Code> from the codes in <Code>dictionary</Code>. Every key is given a number, which
+     * is its index in <Code>keys</Code>, so the table can refer to it.
+     *
+     * @param keys       array with the size of <Code>dictionary</Code> that receives the keys
+     * @return           table that decodes the codes in <Code>dictionary</Code>
+     * @throws Exception if codes in <Code>dictionary</Code> are missing or are not prefix free
+     */
+
+    protected DecodingTable buildDecodingTable(String[] keys) throws Exception{
+        String[] codes = new String[dictionary.size()];
+        int symbol = 0;
+
+        for(Map.Entry<String, Code> entry: dictionary.entrySet()){
+            keys[symbol] = entry.getKey();
+            codes[symbol] = entry.getValue().code;
+            symbol++;
+        }
+
+        return new DecodingTable(codes);
+    }
+
+    /**
+     * Packs the first <Code>bitLength</Code> characters of <Code>input</Code>, which are "0"s and "1"s, into bytes.
+     * The first character becomes the most significant bit of the first byte.
+     *
+     * @param input      "0"s and "1"s
+     * @param bitLength  amount of characters to pack
+     * @return           packed bits where the unused bits of the last byte are "0"s
+     */
+
+    protected static byte[] packBits(String input, int bitLength){
+        byte[] packedBits = new byte[(bitLength + 7) / 8];
+
+        for(int i = 0; i < bitLength; i++){
+            if(input.charAt(i) == '1'){
+                packedBits[i >> 3] |= 0x80 >>> (i & 7);
+            }
+        }
+
+        return packedBits;
+    }
+
     /**
      * Prints dictionary's keys and codes
      *
@@ -0,0 +1,56 @@
+/**
+ * Entry of the block index of a Huffman container: where a block is found in the compressed file, where its bytes belong in the
+ * uncompressed data and the CRC-32C of those bytes. See <Code>HuffmanContainerWriter</Code> for the format.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class ContainerBlock{
+    public static final int INDEX_ENTRY_SIZE = 28; // Bytes of one entry in the block index
+
+    public long uncompressedOffset;
+    public int uncompressedLength;
+    public long compressedOffset;
+    public int compressedLength;
+    public int checksum; // CRC-32C of the uncompressed bytes
+
+    /**
+     * ContainerBlock constructor which stores the position and checksum of one block.
+     *
+     * @param uncompressedOffset  index of the block's first byte in the uncompressed data
+     * @param uncompressedLength  amount of uncompressed bytes, which is also the amount of symbols to decode
+     * @param compressedOffset    index of the block's first byte in the container file
+     * @param compressedLength    amount of bytes of packed codes
+     * @param checksum            CRC-32C of the uncompressed bytes
+     */
+
+    public ContainerBlock(long uncompressedOffset, int uncompressedLength, long compressedOffset, int compressedLength, int checksum){
+        this.uncompressedOffset = uncompressedOffset;
+        this.uncompressedLength = uncompressedLength;
+        this.compressedOffset = compressedOffset;
+        this.compressedLength = compressedLength;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Builds <Code>String</Code> with the offsets and lengths of the block
+     *
+     * @return offsets and lengths in readable format
+     */
+
+    public String toString(){
+        return "Uncompressed: " + uncompressedOffset + "+" + uncompressedLength + " Compressed: " + compressedOffset + "+" + compressedLength;
+    }
+}
@@ -0,0 +1,409 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compresses bytes with order-1 context codebooks: every byte is encoded with a codebook picked by the byte before it, so a
+ * letter that nearly always follows another one (such as "u" after "q", or a space after ".") gets a very short code in that
+ * context. Order-0 codebooks such as the ones of <Code>Huffman</Code> and <Code>ByteHuffman</Code> code every symbol the same way
+ * no matter what came before it.
+ * <p>
+ * <b>Shared table:</b> a context only gets a codebook of its own if the bits it saves are more than the bits needed to store it.
+ * Rare contexts, and the first byte which has no context, use one shared table built from the bytes of all such contexts. The
+ * shared table gives a code to every used byte.
+ * <p>
+ * <b>Format of <Code>compress()</Code>:</b> the amount of bytes in 32 bits, the symbol map of the used bytes and the shared table
+ * as written by <Code>CodebookSerializer</Code>, then for every used byte one bit telling whether it has a table of its own. An own
+ * table is stored as a symbol map over the used bytes (so that it only lists the bytes seen in its context) and its code lengths.
+ * Then come the codes, followed by the padding marker of <Code>BitStreamWriter.toByteArray()</Code>. Codes are at most
+ * <Code>ByteHuffman.MAX_CODE_LENGTH</Code> bits long and the decoder keeps one <Code>DecodingTable</Code> per context, so switching
+ * tables costs one array lookup per byte.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class ContextHuffman{
+    private static final int SYMBOL_COUNT = 256;
+    private static final int PARALLEL_THRESHOLD = 1 << 20; // Bytes counted by one task
+
+    private SymbolModel[] tables; // Table of every context. Contexts that use the shared table point at "sharedTable"
+    private SymbolModel sharedTable;
+    private boolean[] ownTable;
+    private int[] usedSymbols;
+
+    private ContextHuffman(SymbolModel[] tables, SymbolModel sharedTable, boolean[] ownTable, int[] usedSymbols){
+        this.tables = tables;
+        this.sharedTable = sharedTable;
+        this.ownTable = ownTable;
+        this.usedSymbols = usedSymbols;
+    }
+
+    /**
+     * Builds the context tables of <Code>data</Code> and decides which contexts use the shared table.
+     *
+     * @param data       bytes to compress
+     * @return           tables of every context
+     * @throws Exception if a table can not be built
+     */
+
+    public static ContextHuffman train(byte[] data) throws Exception{
+        long[] pairFrequencies = countPairs(data);
+
+        long[] frequencies = new long[SYMBOL_COUNT];
+        for(int i = 0; i < pairFrequencies.length; i++){
+            frequencies[i % SYMBOL_COUNT] += pairFrequencies[i];
+        }
+        if(data.length > 0){
+            frequencies[data[0] & 0xFF]++; // The first byte is not counted as a pair
+        }
+        int[] usedSymbols = CodebookSerializer.findUsedSymbols(frequencies);
+
+        // First shared table from every byte, used to see what a context would cost without a table of its own
+        SymbolModel sharedTable = buildSharedTable(frequencies, usedSymbols);
+
+        boolean[] ownTable = new boolean[SYMBOL_COUNT];
+        SymbolModel[] tables = new SymbolModel[SYMBOL_COUNT];
+        long[] sharedFrequencies = new long[SYMBOL_COUNT];
+        if(data.length > 0){
+            sharedFrequencies[data[0] & 0xFF]++;
+        }
+
+        for(int context: usedSymbols){
+            SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+            System.arraycopy(pairFrequencies, context * SYMBOL_COUNT, model.frequencies, 0, SYMBOL_COUNT);
+            if(model.calculateSumOfFrequencies() == 0){
+                continue; // Only the last byte of the input has this value
+            }
+            Huffman.setupLengthLimitedHuffmanCodes(model, ByteHuffman.MAX_CODE_LENGTH);
+
+            long sharedCost = 0;
+            for(int symbol: usedSymbols){
+                sharedCost += model.frequencies[symbol] * sharedTable.codeLengths[symbol];
+            }
+            long ownCost = model.calculateEncodedBitLength() + calculateTableBitLength(model, usedSymbols);
+
+            if(ownCost < sharedCost){
+                ownTable[context] = true;
+                tables[context] = model;
+            }else{
+                for(int symbol: usedSymbols){
+                    sharedFrequencies[symbol] += model.frequencies[symbol];
+                }
+            }
+        }
+
+        // Rebuild the shared table from the contexts that use it
+        sharedTable = buildSharedTable(sharedFrequencies, usedSymbols);
+        for(int context = 0; context < SYMBOL_COUNT; context++){
+            if(!ownTable[context]){
+                tables[context] = sharedTable;
+            }
+        }
+
+        return new ContextHuffman(tables, sharedTable, ownTable, usedSymbols);
+    }
+
+    /**
+     * Compresses <Code>data</Code> with order-1 context tables.
+     *
+     * @param data       bytes to compress
+     * @return           header, tables, codes and padding marker
+     * @throws Exception if the tables can not be built
+     */
+
+    public static byte[] compress(byte[] data) throws Exception{
+        ContextHuffman contextHuffman = train(data);
+        BitStreamWriter writer = new BitStreamWriter(data.length / 2);
+
+        contextHuffman.writeHeader(writer, data.length);
+        contextHuffman.encode(data, writer);
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decompresses the output of <Code>compress()</Code>.
+     *
+     * @param compressed  header, tables, codes and padding marker
+     * @return            the original bytes
+     * @throws Exception  if <Code>compressed</Code> is not valid
+     */
+
+    public static byte[] decompress(byte[] compressed) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        BitStreamReader reader = new BitStreamReader(compressed);
+
+        int length = CodebookSerializer.readSymbolCount(reader);
+        int[] usedSymbols = CodebookSerializer.readSymbolMap(reader, SYMBOL_COUNT);
+        if(length > 0 && usedSymbols.length == 0){
+            throw new Exception("Header is not valid");
+        }
+        DecodingTable sharedTable = readTable(reader, usedSymbols);
+
+        DecodingTable[] decodingTables = new DecodingTable[SYMBOL_COUNT];
+        for(int context: usedSymbols){
+            if(reader.readBits(1) == 1){
+                int[] indexes = CodebookSerializer.readSymbolMap(reader, usedSymbols.length);
+                int[] contextSymbols = new int[indexes.length];
+                for(int i = 0; i < indexes.length; i++){
+                    contextSymbols[i] = usedSymbols[indexes[i]];
+                }
+                decodingTables[context] = readTable(reader, contextSymbols);
+            }else{
+                decodingTables[context] = sharedTable;
+            }
+        }
+        long codeStart = reader.getBitPosition();
+
+        byte[] result = new byte[length];
+        DecodingTable decodingTable = sharedTable;
+        for(int i = 0; i < length; i++){
+            int symbol = decodingTable.decodeSymbol(reader);
+            if(symbol == -1){
+                CodecMetrics.INSTANCE.recordDecodeError();
+                throw new Exception("Codes do not correspond to the tables at bit " + reader.getBitPosition());
+            }
+            result[i] = (byte)symbol;
+            decodingTable = decodingTables[symbol];
+        }
+
+        CodecMetrics.INSTANCE.recordDecode(start, reader.getBitPosition() - codeStart, length, length);
+        return result;
+    }
+
+    /**
+     * Calculates the order-1 entropy of <Code>data</Code>: the average amount of bits needed for a byte when the byte before
+     * it is known. The difference from the order-0 entropy is the most an order-1 coder can gain per byte.
+     *
+     * @param data  bytes
+     * @return      conditional entropy in bits per byte, the first byte not included
+     */
+
+    public static double calculateConditionalEntropy(byte[] data){
+        long[] pairFrequencies = countPairs(data);
+        double entropy = 0;
+
+        for(int context = 0; context < SYMBOL_COUNT; context++){
+            long contextFrequency = 0;
+            for(int symbol = 0; symbol < SYMBOL_COUNT; symbol++){
+                contextFrequency += pairFrequencies[context * SYMBOL_COUNT + symbol];
+            }
+            for(int symbol = 0; symbol < SYMBOL_COUNT; symbol++){
+                long pairFrequency = pairFrequencies[context * SYMBOL_COUNT + symbol];
+                if(pairFrequency > 0){
+                    double probability = (double)pairFrequency / contextFrequency;
+                    entropy -= pairFrequency * (Math.log(probability) / Math.log(2));
+                }
+            }
+        }
+
+        return data.length > 1 ? entropy / (data.length - 1) : 0;
+    }
+
+    /**
+     * Writes the amount of bytes and the tables.
+     *
+     * @param writer      output
+     * @param length      amount of bytes that will be encoded
+     * @throws Exception  if a table can not be stored
+     */
+
+    public void writeHeader(BitStreamWriter writer, int length) throws Exception{
+        CodebookSerializer.writeSymbolCount(writer, length);
+
+        CodebookSerializer.writeSymbolMap(writer, usedSymbols, SYMBOL_COUNT);
+        CodebookSerializer.writeCodeLengths(writer, sharedTable.codeLengths, usedSymbols);
+
+        for(int context: usedSymbols){
+            writer.writeBits(ownTable[context] ? 1 : 0, 1);
+            if(ownTable[context]){
+                writeContextTable(writer, tables[context], usedSymbols);
+            }
+        }
+    }
+
+    /**
+     * Writes the code of every byte of <Code>data</Code> with the table of the byte before it.
+     *
+     * @param data    the bytes the tables were built from
+     * @param writer  output
+     */
+
+    public void encode(byte[] data, BitStreamWriter writer){
+        long start = CodecMetrics.INSTANCE.startTimer();
+        long startBitLength = writer.getBitLength();
+
+        SymbolModel table = sharedTable;
+        for(byte value: data){
+            int symbol = value & 0xFF;
+            writer.writeBits(table.codeBits[symbol], table.codeLengths[symbol]);
+            table = tables[symbol];
+        }
+
+        CodecMetrics.INSTANCE.recordEncode(start, data.length, data.length, writer.getBitLength() - startBitLength);
+    }
+
+    /**
+     * Returns how many contexts have a table of their own.
+     *
+     * @return amount of contexts that do not use the shared table
+     */
+
+    public int getOwnTableCount(){
+        int ownTableCount = 0;
+        for(boolean own: ownTable){
+            if(own){
+                ownTableCount++;
+            }
+        }
+        return ownTableCount;
+    }
+
+    /**
+     * Counts how many times every byte follows every other byte, splitting <Code>data</Code> across the fork/join pool.
+     *
+     * @param data  bytes
+     * @return      frequency of every pair at <Code>[previous * 256 + next]</Code>
+     */
+
+    private static long[] countPairs(byte[] data){
+        if(data.length < 2){
+            return new long[SYMBOL_COUNT * SYMBOL_COUNT];
+        }
+        return Compression.FORK_JOIN_POOL.invoke(new CountTask(data, 1, data.length));
+    }
+
+    /**
+     * Builds the shared table. Every used byte gets its frequency plus 1 so that it has a code in any context.
+     *
+     * @param frequencies  frequency of every byte in the contexts that use the shared table
+     * @param usedSymbols  byte values that appear in the input
+     * @return             the shared table
+     * @throws Exception   if the codes can not be built
+     */
+
+    private static SymbolModel buildSharedTable(long[] frequencies, int[] usedSymbols) throws Exception{
+        SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+        for(int symbol: usedSymbols){
+            model.frequencies[symbol] = frequencies[symbol] + 1;
+        }
+        if(usedSymbols.length > 0){
+            Huffman.setupLengthLimitedHuffmanCodes(model, ByteHuffman.MAX_CODE_LENGTH);
+        }
+        return model;
+    }
+
+    /**
+     * Writes a context table: a symbol map of the bytes it has codes for, as indexes into <Code>usedSymbols</Code>, and their code lengths.
+     *
+     * @param writer       output
+     * @param table        table of the context
+     * @param usedSymbols  byte values that appear in the input
+     * @throws Exception   if a code length can not be stored
+     */
+
+    private static void writeContextTable(BitStreamWriter writer, SymbolModel table, int[] usedSymbols) throws Exception{
+        int contextCount = 0;
+        for(int symbol: usedSymbols){
+            if(table.codeLengths[symbol] > 0){
+                contextCount++;
+            }
+        }
+
+        int[] indexes = new int[contextCount];
+        int[] contextSymbols = new int[contextCount];
+        contextCount = 0;
+        for(int i = 0; i < usedSymbols.length; i++){
+            if(table.codeLengths[usedSymbols[i]] > 0){
+                indexes[contextCount] = i;
+                contextSymbols[contextCount] = usedSymbols[i];
+                contextCount++;
+            }
+        }
+
+        CodebookSerializer.writeSymbolMap(writer, indexes, usedSymbols.length);
+        CodebookSerializer.writeCodeLengths(writer, table.codeLengths, contextSymbols);
+    }
+
+    /**
+     * Calculates how many bits <Code>writeContextTable()</Code> writes for <Code>table</Code>.
+     *
+     * @param table        table of the context
+     * @param usedSymbols  byte values that appear in the input
+     * @return             bits needed to store the table
+     * @throws Exception   if a code length can not be stored
+     */
+
+    private static long calculateTableBitLength(SymbolModel table, int[] usedSymbols) throws Exception{
+        BitStreamWriter writer = new BitStreamWriter();
+        writeContextTable(writer, table, usedSymbols);
+        return writer.getBitLength();
+    }
+
+    /**
+     * Reads code lengths and builds the decoding table of <Code>symbols</Code>.
+     *
+     * @param reader      input
+     * @param symbols     byte values that have a code in the table, in increasing order
+     * @return            decoding table that returns byte values
+     * @throws Exception  if the code lengths are not valid
+     */
+
+    private static DecodingTable readTable(BitStreamReader reader, int[] symbols) throws Exception{
+        SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+        CodebookSerializer.readCodeLengths(reader, model.codeLengths, symbols);
+        model.assignCanonicalCodes();
+        return model.buildDecodingTable();
+    }
+
+    /**
+     * Counts the pairs that end in a range of positions by splitting it in half until at most <Code>PARALLEL_THRESHOLD</Code>
+     * positions are left.
+     */
+
+    private static class CountTask extends RecursiveTask<long[]>{
+        private byte[] data;
+        private int start;
+        private int end;
+
+        public CountTask(byte[] data, int start, int end){
+            this.data = data;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected long[] compute(){
+            if(end - start > PARALLEL_THRESHOLD){
+                int middle = (start + end) >>> 1;
+                CountTask secondHalf = new CountTask(data, middle, end);
+                secondHalf.fork();
+                long[] frequencies = new CountTask(data, start, middle).compute();
+                long[] secondFrequencies = secondHalf.join();
+                for(int i = 0; i < frequencies.length; i++){
+                    frequencies[i] += secondFrequencies[i];
+                }
+                return frequencies;
+            }
+
+            long[] frequencies = new long[SYMBOL_COUNT * SYMBOL_COUNT];
+            int previous = data[start - 1] & 0xFF;
+            for(int i = start; i < end; i++){
+                int symbol = data[i] & 0xFF;
+                frequencies[(previous << 8) | symbol]++;
+                previous = symbol;
+            }
+            return frequencies;
+        }
+    }
+}
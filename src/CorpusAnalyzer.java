@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Analyzes many corpora at once, for example every <Code>problem14*.txt</Code> language. Every corpus is read and counted once,
+ * on the fork/join pool, into a <Code>Report</Code> with its entropy, the average length of its Huffman codes and the ratio of
+ * equal-length to Huffman code length. The deviations between every pair of corpora are then found from the reports alone.
+ * <p>
+ * The entropy of a corpus is found as <Code>log2(F) - S / F</Code>, where F is the sum of the frequencies and S the sum of
+ * <Code>f * log2(f)</Code>, in the same pass that adds up F, so the sum of the frequencies is not found twice and every symbol
+ * takes one logarithm.
+ * <p>
+ * Reports are kept per corpus, keyed like the files of <Code>CodebookCache</Code> (path, last-modified time and length), so
+ * analyzing an unchanged corpus again does not read it. At most <Code>cacheCapacity</Code> reports are kept, the least recently
+ * used one is removed first.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class CorpusAnalyzer{
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
+    private static final double LOG_2 = Math.log(2);
+
+    private final LinkedHashMap<Object, Report> reports;
+
+    /**
+     * CorpusAnalyzer constructor which keeps up to <Code>DEFAULT_CACHE_CAPACITY</Code> reports.
+     */
+
+    public CorpusAnalyzer(){
+        this(DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * CorpusAnalyzer constructor.
+     *
+     * @param cacheCapacity  most reports kept
+     */
+
+    public CorpusAnalyzer(final int cacheCapacity){
+        reports = new LinkedHashMap<Object, Report>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Report> eldest){
+                return size() > cacheCapacity;
+            }
+        };
+    }
+
+    /**
+     * Entropy and code lengths of one corpus.
+     */
+
+    public static class Report{
+        public String fileName;
+        public int symbolCount;
+        public long sumOfFrequencies;
+        public double entropy;           // Bits per symbol
+        public double averageCodeLength; // Bits per symbol with the corpus' own Huffman codes
+        public double equalLengthRatio;  // Equal-length code length divided by "averageCodeLength", as in Huffman.calculateRatio(-1)
+
+        /**
+         * Returns how much longer the Huffman codes are than the entropy.
+         *
+         * @return redundancy in bits per symbol
+         */
+
+        public double getRedundancy(){
+            return averageCodeLength - entropy;
+        }
+    }
+
+    /**
+     * Finds the files of a directory whose names match a glob pattern, sorted by name.
+     *
+     * @param directory     the directory
+     * @param pattern       glob pattern such as "problem14*.txt"
+     * @return              paths of the files
+     * @throws IOException  if the directory can not be read
+     */
+
+    public static ArrayList<String> findCorpora(String directory, String pattern) throws IOException{
+        ArrayList<String> fileNames = new ArrayList<String>();
+
+        DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(directory), pattern);
+        try{
+            for(Path path: stream){
+                if(Files.isRegularFile(path)){
+                    fileNames.add(path.toString());
+                }
+            }
+        }finally{
+            stream.close();
+        }
+
+        Collections.sort(fileNames);
+        return fileNames;
+    }
+
+    /**
+     * Analyzes every corpus in parallel. Corpora analyzed before and not changed since are taken from the cache.
+     *
+     * @param fileNames          paths of the corpora
+     * @param isAlphabetRawText  indicates whether or not the files' contents is raw text, as in <Code>setupDictionaryFromFile()</Code>
+     * @return                   a report for every corpus, in the order of <Code>fileNames</Code>
+     * @throws Exception         if a corpus can not be read or has no symbols
+     */
+
+    public Report[] analyze(List<String> fileNames, boolean isAlphabetRawText) throws Exception{
+        Report[] result = new Report[fileNames.size()];
+        Object[] keys = new Object[fileNames.size()];
+        boolean allCached = true;
+
+        for(int i = 0; i < fileNames.size(); i++){
+            keys[i] = CodebookCache.getFileKey(fileNames.get(i), isAlphabetRawText);
+            if(keys[i] == null){
+                throw new Exception("Corpus " + fileNames.get(i) + " does not exist");
+            }
+            result[i] = getCachedReport(keys[i]);
+            allCached &= result[i] != null;
+        }
+
+        if(!allCached){
+            Exception exception = Compression.FORK_JOIN_POOL.invoke(new AnalyzeTask(fileNames, isAlphabetRawText, result, 0, result.length));
+            if(exception != null){
+                throw exception;
+            }
+        }
+
+        synchronized(reports){
+            for(int i = 0; i < result.length; i++){
+                reports.put(keys[i], result[i]);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the deviation of every corpus from every other corpus, the same way as <Code>Huffman.displayDeviationFromOptimalEncoding()</Code>:
+     * <Code>deviations[i][j]</Code> is the percent by which the entropy of corpus j is higher than the entropy of corpus i.
+     *
+     * @param reports  reports of the corpora
+     * @return         deviation of every pair of corpora in percent
+     */
+
+    public static double[][] calculateDeviations(Report[] reports){
+        double[][] deviations = new double[reports.length][reports.length];
+
+        for(int i = 0; i < reports.length; i++){
+            for(int j = 0; j < reports.length; j++){
+                deviations[i][j] = reports[j].entropy / reports[i].entropy * 100 - 100;
+            }
+        }
+
+        return deviations;
+    }
+
+    /**
+     * Prints a table with a row for every report, followed by the deviations of every pair of corpora.
+     *
+     * @param reports  reports of the corpora
+     */
+
+    public static void printReports(Report[] reports){
+        System.out.println(String.format("%-40s %8s %12s %12s %12s %12s", "Corpus", "Symbols", "Entropy", "Huffman", "Redundancy", "Ratio"));
+        for(Report report: reports){
+            System.out.println(String.format("%-40s %8d %12.6f %12.6f %12.6f %12.6f", report.fileName, report.symbolCount, report.entropy,
+                    report.averageCodeLength, report.getRedundancy(), report.equalLengthRatio));
+        }
+
+        double[][] deviations = calculateDeviations(reports);
+        System.out.println("\nDeviation in percent of the entropy of every column from the entropy of every row:");
+        StringBuilder header = new StringBuilder(String.format("%-6s", ""));
+        for(int j = 0; j < reports.length; j++){
+            header.append(String.format(" %10s", "#" + (j + 1)));
+        }
+        System.out.println(header);
+        for(int i = 0; i < reports.length; i++){
+            StringBuilder row = new StringBuilder(String.format("%-6s", "#" + (i + 1)));
+            for(int j = 0; j < reports.length; j++){
+                row.append(String.format(" %10.4f", deviations[i][j]));
+            }
+            System.out.println(row);
+        }
+    }
+
+    /**
+     * Finds a cached report and marks it as the most recently used.
+     *
+     * @param key  key from <Code>CodebookCache.getFileKey()</Code>
+     * @return     the report or <Code>null</Code> if it is not cached
+     */
+
+    private Report getCachedReport(Object key){
+        synchronized(reports){
+            return reports.get(key);
+        }
+    }
+
+    /**
+     * Counts the symbols of a corpus and builds its report. Huffman code lengths are found on a <Code>SymbolModel</Code>, so no
+     * <Code>Code</Code> objects are built for the tree.
+     *
+     * @param fileName           path of the corpus
+     * @param isAlphabetRawText  indicates whether or not the file's contents is raw text
+     * @return                   report of the corpus
+     * @throws Exception         if the corpus has no symbols
+     */
+
+    private static Report analyzeCorpus(String fileName, boolean isAlphabetRawText) throws Exception{
+        Huffman corpus = new Huffman();
+        corpus.setupDictionaryFromFile(fileName, isAlphabetRawText);
+        if(corpus.dictionary.isEmpty()){
+            throw new Exception("Corpus " + fileName + " has no symbols");
+        }
+
+        SymbolModel model = SymbolModel.fromDictionary(corpus.dictionary);
+        Huffman.setupHuffmanCodes(model);
+
+        long sumOfFrequencies = 0;
+        long encodedBitLength = 0;
+        double terms = 0; // Sum of f * log2(f)
+        for(int symbol = 0; symbol < model.size; symbol++){
+            long frequency = model.frequencies[symbol];
+            if(frequency > 0){
+                sumOfFrequencies += frequency;
+                encodedBitLength += frequency * model.codeLengths[symbol];
+                terms += frequency * (Math.log(frequency) / LOG_2);
+            }
+        }
+
+        Report report = new Report();
+        report.fileName = fileName;
+        report.symbolCount = model.size;
+        report.sumOfFrequencies = sumOfFrequencies;
+        report.entropy = Math.log(sumOfFrequencies) / LOG_2 - terms / sumOfFrequencies;
+        report.averageCodeLength = (double)encodedBitLength / sumOfFrequencies;
+        report.equalLengthRatio = Math.ceil(Math.log(model.size) / LOG_2) / report.averageCodeLength;
+        return report;
+    }
+
+    /**
+     * Analyzes a range of corpora by splitting it in half until one corpus is left. Corpora that already have a report are
+     * skipped. The result is the first exception met, or <Code>null</Code>.
+     */
+
+    private static class AnalyzeTask extends RecursiveTask<Exception>{
+        private List<String> fileNames;
+        private boolean isAlphabetRawText;
+        private Report[] result;
+        private int start;
+        private int end;
+
+        public AnalyzeTask(List<String> fileNames, boolean isAlphabetRawText, Report[] result, int start, int end){
+            this.fileNames = fileNames;
+            this.isAlphabetRawText = isAlphabetRawText;
+            this.result = result;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Exception compute(){
+            if(end - start == 1){
+                if(result[start] != null){
+                    return null;
+                }
+                try{
+                    result[start] = analyzeCorpus(fileNames.get(start), isAlphabetRawText);
+                    return null;
+                }catch (Exception e){
+                    return e;
+                }
+            }
+
+            int middle = (start + end) >>> 1;
+            AnalyzeTask secondHalf = new AnalyzeTask(fileNames, isAlphabetRawText, result, middle, end);
+            secondHalf.fork();
+            Exception exception = new AnalyzeTask(fileNames, isAlphabetRawText, result, start, middle).compute();
+            Exception secondException = secondHalf.join();
+            return exception != null ? exception : secondException;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.zip.Checksum;
+
+/**
+ * CRC-32C (Castagnoli) checksum, the CRC used by iSCSI, ext4 and most storage formats. <Code>java.util.zip.CRC32C</Code> only
+ * exists from Java 9 so the checksum is computed here with lookup tables, eight bytes at a time ("slicing-by-8").
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class Crc32c implements Checksum{
+    private static final int POLYNOMIAL = 0x82F63B78; // Castagnoli polynomial with its bits reversed
+    private static final int[][] TABLES = buildTables();
+
+    private int crc = 0xFFFFFFFF;
+
+    /**
+     * Computes the checksum of a part of an array.
+     *
+     * @param buffer  bytes to check
+     * @param offset  index of the first byte
+     * @param length  amount of bytes
+     * @return        the checksum
+     */
+
+    public static int calculate(byte[] buffer, int offset, int length){
+        Crc32c checksum = new Crc32c();
+        checksum.update(buffer, offset, length);
+        return (int)checksum.getValue();
+    }
+
+    @Override
+    public void update(int value){
+        crc = (crc >>> 8) ^ TABLES[0][(crc ^ value) & 0xFF];
+    }
+
+    @Override
+    public void update(byte[] buffer, int offset, int length){
+        int[] table0 = TABLES[0], table1 = TABLES[1], table2 = TABLES[2], table3 = TABLES[3];
+        int[] table4 = TABLES[4], table5 = TABLES[5], table6 = TABLES[6], table7 = TABLES[7];
+        int value = crc;
+        int end = offset + length;
+
+        // Eight bytes at a time: every byte is looked up in its own table and the results are combined
+        while(end - offset >= 8){
+            int low = value ^ ((buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8 | (buffer[offset + 2] & 0xFF) << 16 | (buffer[offset + 3] & 0xFF) << 24);
+            value = table7[low & 0xFF] ^ table6[(low >>> 8) & 0xFF] ^ table5[(low >>> 16) & 0xFF] ^ table4[low >>> 24]
+                    ^ table3[buffer[offset + 4] & 0xFF] ^ table2[buffer[offset + 5] & 0xFF]
+                    ^ table1[buffer[offset + 6] & 0xFF] ^ table0[buffer[offset + 7] & 0xFF];
+            offset += 8;
+        }
+        while(offset < end){
+            value = (value >>> 8) ^ table0[(value ^ buffer[offset++]) & 0xFF];
+        }
+
+        crc = value;
+    }
+
+    @Override
+    public long getValue(){
+        return ~crc & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void reset(){
+        crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * Builds the lookup tables. <Code>TABLES[0]</Code> is the CRC of every byte and <Code>TABLES[k]</Code> is the CRC of a byte followed by <Code>k</Code> zero bytes.
+     *
+     * @return eight tables of 256 entries
+     */
+
+    private static int[][] buildTables(){
+        int[][] tables = new int[8][256];
+
+        for(int value = 0; value < 256; value++){
+            int crc = value;
+            for(int bit = 0; bit < 8; bit++){
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            tables[0][value] = crc;
+        }
+        for(int k = 1; k < 8; k++){
+            for(int value = 0; value < 256; value++){
+                int previous = tables[k - 1][value];
+                tables[k][value] = (previous >>> 8) ^ tables[0][previous & 0xFF];
+            }
+        }
+
+        return tables;
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.Arrays;
+
+/**
+ * Decodes prefix codes with a lookup table instead of comparing the input with every code. Every symbol is
+ * identified by its index in the array of codes the table was built from.
+ * <p>
+ * The table has an entry for every combination of the next <Code>lookupBits</Code> bits of the input. For a code no longer
+ * than <Code>lookupBits</Code> every entry that starts with the code holds the symbol and the code length, so a symbol is
+ * decoded with one lookup. For a longer code the entry holds a node of a binary tree (trie) of all codes, and the rest of
+ * the code is decoded one bit at a time from that node.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class DecodingTable{
+    public static final int DEFAULT_LOOKUP_BITS = 10;
+    private static final int INVALID_ENTRY = Integer.MIN_VALUE;
+    private static final int LENGTH_BITS = 5; // A table entry stores the code length in its lowest 5 bits and the symbol above them
+
+    private int lookupBits;
+    private int[] table;
+    private int[] trie = new int[64]; // Children of node n are trie[2n] for "0" and trie[2n + 1] for "1". 0 means no child, a negative value -(symbol + 1) is a symbol
+    private int nodeCount = 1; // Node 0 is the root
+
+    /**
+     * DecodingTable constructor which builds the lookup table from codes written as "0"s and "1"s.
+     *
+     * @param codes      code of every symbol
+     * @throws Exception if a code is empty or the codes are not prefix free
+     */
+
+    public DecodingTable(String[] codes) throws Exception{
+        for(int symbol = 0; symbol < codes.length; symbol++){
+            if(codes[symbol] == null || codes[symbol].length() == 0){
+                throw new Exception("Symbol " + symbol + " does not have a code");
+            }
+        }
+
+        buildTable(codes);
+    }
+
+    /**
+     * DecodingTable constructor which builds the lookup table from codes stored as numbers, as in <Code>SymbolModel</Code>.
+     * Symbols with a code length of 0 do not have a code and are left out.
+     *
+     * @param codeBits     code of every symbol in the lowest <Code>codeLengths[symbol]</Code> bits
+     * @param codeLengths  code length of every symbol
+     * @param symbolCount  amount of symbols
+     * @throws Exception   if the codes are not prefix free
+     */
+
+    public DecodingTable(long[] codeBits, byte[] codeLengths, int symbolCount) throws Exception{
+        String[] codes = new String[symbolCount];
+
+        for(int symbol = 0; symbol < symbolCount; symbol++){
+            if(codeLengths[symbol] > 0){
+                // Write the code as "0"s and "1"s with its leading "0"s
+                String bits = Long.toBinaryString(codeBits[symbol]);
+                StringBuilder code = new StringBuilder();
+                for(int i = bits.length(); i < codeLengths[symbol]; i++){
+                    code.append('0');
+                }
+                codes[symbol] = code.append(bits).toString();
+            }
+        }
+
+        buildTable(codes);
+    }
+
+    /**
+     * Adds every code to the trie and fills the lookup table.
+     *
+     * @param codes      code of every symbol, or <Code>null</Code> for a symbol without a code
+     * @throws Exception if the codes are not prefix free
+     */
+
+    private void buildTable(String[] codes) throws Exception{
+        int maxCodeLength = 0;
+
+        for(int symbol = 0; symbol < codes.length; symbol++){
+            if(codes[symbol] != null){
+                addCode(symbol, codes[symbol]);
+                maxCodeLength = Math.max(maxCodeLength, codes[symbol].length());
+            }
+        }
+
+        lookupBits = Math.max(1, Math.min(maxCodeLength, DEFAULT_LOOKUP_BITS));
+        table = new int[1 << lookupBits];
+        Arrays.fill(table, INVALID_ENTRY);
+
+        for(int symbol = 0; symbol < codes.length; symbol++){
+            String code = codes[symbol];
+            if(code == null){
+                continue;
+            }
+            if(code.length() <= lookupBits){
+                // Every entry that starts with this code decodes to this symbol
+                int firstEntry = Integer.parseInt(code, 2) << (lookupBits - code.length());
+                int entryCount = 1 << (lookupBits - code.length());
+                for(int i = firstEntry; i < firstEntry + entryCount; i++){
+                    table[i] = (symbol << LENGTH_BITS) | code.length();
+                }
+            }else{
+                // Point the entry of the first "lookupBits" bits at the trie node reached after them
+                int node = 0;
+                for(int i = 0; i < lookupBits; i++){
+                    node = trie[2 * node + (code.charAt(i) - '0')];
+                }
+                table[Integer.parseInt(code.substring(0, lookupBits), 2)] = -node;
+            }
+        }
+    }
+
+    /**
+     * Decodes the next symbol and moves <Code>reader</Code> forward by the length of its code.
+     *
+     * @param reader  input
+     * @return        the decoded symbol, or -1 if the next bits do not form a code
+     */
+
+    public int decodeSymbol(BitStreamReader reader){
+        int entry = table[reader.peekBits(lookupBits)];
+
+        if(entry >= 0){
+            int codeLength = entry & ((1 << LENGTH_BITS) - 1);
+            if(reader.getRemainingBits() < codeLength){
+                return -1;
+            }
+            reader.skipBits(codeLength);
+            return entry >>> LENGTH_BITS;
+        }
+
+        if(entry == INVALID_ENTRY || reader.getRemainingBits() < lookupBits){
+            return -1;
+        }
+
+        // The code is longer than "lookupBits" so continue one bit at a time from the trie node
+        reader.skipBits(lookupBits);
+        int node = -entry;
+        while(reader.getRemainingBits() > 0){
+            int child = trie[2 * node + reader.readBits(1)];
+            if(child == 0){
+                return -1;
+            }else if(child < 0){
+                return -child - 1;
+            }
+            node = child;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Adds the code of <Code>symbol</Code> to the trie.
+     *
+     * @param symbol     index of the symbol
+     * @param code       code of the symbol written as "0"s and "1"s
+     * @throws Exception if the code is not made of "0"s and "1"s or it is a prefix of another code (or the other way around)
+     */
+
+    private void addCode(int symbol, String code) throws Exception{
+        int node = 0;
+
+        for(int i = 0; i < code.length(); i++){
+            int bit = code.charAt(i) - '0';
+            if(bit != 0 && bit != 1){
+                throw new Exception("Code \"" + code + "\" is not made of \"0\"s and \"1\"s");
+            }
+
+            int child = trie[2 * node + bit];
+            if(i == code.length() - 1){
+                // Last bit: the child must be free so it can hold the symbol
+                if(child != 0){
+                    throw new Exception("Code \"" + code + "\" is not prefix free");
+                }
+                trie[2 * node + bit] = -(symbol + 1);
+            }else if(child < 0){
+                throw new Exception("Code \"" + code + "\" is not prefix free");
+            }else if(child == 0){
+                // Create a new node
+                if(2 * nodeCount + 2 > trie.length){
+                    trie = Arrays.copyOf(trie, trie.length * 2);
+                }
+                trie[2 * node + bit] = nodeCount;
+                node = nodeCount;
+                nodeCount++;
+            }else{
+                node = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the codes of one character keys from a <Code>dictionary</Code> as numbers in arrays indexed by the character.
+ * This allows encoders to write a code with one array lookup instead of a <Code>HashMap</Code> lookup and a <Code>String</Code>
+ * per character. Keys that are longer than one character are not part of the table.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class EncodingTable{
+    private long[] codeBits;
+    private int[] codeLengths;
+    private String[] longCodes; // Codes longer than 64 bits do not fit in a long so they are kept as "0"s and "1"s
+
+    /**
+     * EncodingTable constructor which copies the codes of one character keys from <Code>dictionary</Code>.
+     *
+     * @param dictionary keys and their codes
+     */
+
+    public EncodingTable(HashMap<String, Code> dictionary){
+        int tableSize = 0;
+        for(String key: dictionary.keySet()){
+            if(key.length() == 1){
+                tableSize = Math.max(tableSize, key.charAt(0) + 1);
+            }
+        }
+
+        codeBits = new long[tableSize];
+        codeLengths = new int[tableSize];
+        longCodes = new String[tableSize];
+        Arrays.fill(codeLengths, -1); // -1 means the character does not have a code
+
+        for(Map.Entry<String, Code> entry: dictionary.entrySet()){
+            String code = entry.getValue().code;
+            if(entry.getKey().length() == 1 && code != null){
+                char key = entry.getKey().charAt(0);
+                codeLengths[key] = code.length();
+                if(code.length() > 64){
+                    longCodes[key] = code;
+                }else if(code.length() > 0){
+                    codeBits[key] = new BigInteger(code, 2).longValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if <Code>key</Code> has a code.
+     *
+     * @param key  character to check
+     * @return     true if <Code>key</Code> has a code
+     */
+
+    public boolean hasCode(char key){
+        return key < codeLengths.length && codeLengths[key] != -1;
+    }
+
+    /**
+     * Writes the code of <Code>key</Code>.
+     *
+     * @param writer     output
+     * @param key        character to encode
+     * @throws Exception if <Code>key</Code> does not have a code
+     */
+
+    public void writeCode(BitStreamWriter writer, char key) throws Exception{
+        if(!hasCode(key)){
+            throw new Exception("\"" + key + "\" does not have a code in dictionary");
+        }
+
+        if(longCodes[key] != null){
+            writer.writeCode(longCodes[key]);
+        }else{
+            writer.writeBits(codeBits[key], codeLengths[key]);
+        }
+    }
+}
@@ -43,6 +43,27 @@ public class EqualLengthCompression extends Compression{
         }
     }
 
+    /**
+     * Builds equal-length codes for a <Code>SymbolModel</Code>. Every symbol's code is its number written with
+     * Math.ceil( log(n) / log(2) ) bits, which is the same code <Code>setupDictionaryFromString()</Code> gives the n-th key.
+     * An alphabet with a single symbol gets codes of 1 bit.
+     *
+     * @param model      symbols. Receives the codes
+     * @throws Exception if the codes would be longer than <Code>SymbolModel.MAX_CODE_LENGTH</Code>
+     */
+
+    public static void setupEqualLengthCodes(SymbolModel model) throws Exception{
+        int codeLength = Math.max(1, 32 - Integer.numberOfLeadingZeros(model.size - 1)); // Math.ceil( log(n) / log(2) ) without rounding errors
+        if(codeLength > SymbolModel.MAX_CODE_LENGTH){
+            throw new Exception("Codes of a symbol model can not be longer than " + SymbolModel.MAX_CODE_LENGTH + " bits");
+        }
+
+        for(int symbol = 0; symbol < model.size; symbol++){
+            model.codeBits[symbol] = symbol;
+            model.codeLengths[symbol] = (byte)codeLength;
+        }
+    }
+
     /**
      * Builds equal-length codes for an alphabet. After reading file's contents builds codes with
      * <Code>buildEqualLengthCodesFromString()</Code>
@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts how often every byte value appears in a file or a buffer. Files are memory-mapped with <Code>FileChannel.map()</Code>
+ * instead of being read into a <Code>String</Code>. The input is split into chunks and every chunk is counted into its own
+ * <Code>long[]</Code> histogram on the fork/join pool, after which the histograms are added together in order.
+ * <p>
+ * Besides the frequencies the counter remembers where every byte value first appears, both as an offset in the input and as
+ * a position among the letters "a-z" and "A-Z" of the input. The second is the position the byte would have after
+ * <Code>Compression.removeNonLetterSymbols()</Code> removes every other character.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class FrequencyCounter{
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 22; // 4 MB
+    private static final int MAX_MAPPED_SIZE = 1 << 30; // A single mapping can not be larger than 2 GB so files are mapped 1 GB at a time
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    public long[] frequencies = new long[256];
+    public long[] firstOffsets = new long[256];
+    public long[] firstLetterPositions = new long[256];
+    public long byteCount;
+    public long letterCount;
+
+    /**
+     * Counts every byte of a file.
+     *
+     * @param fileName     the file name
+     * @return             frequencies of the file's bytes
+     * @throws IOException if the file can not be read
+     */
+
+    public static FrequencyCounter countFile(String fileName) throws IOException{
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+
+        try{
+            FileChannel channel = file.getChannel();
+            ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+
+            // Map the file in parts and cut every part into chunks
+            for(long position = 0; position < channel.size(); position += MAX_MAPPED_SIZE){
+                ByteBuffer mappedPart = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_MAPPED_SIZE, channel.size() - position));
+                addChunks(chunks, mappedPart, DEFAULT_CHUNK_SIZE);
+            }
+
+            return countChunks(chunks);
+        }finally{
+            file.close();
+        }
+    }
+
+    /**
+     * Counts the bytes of <Code>sampleCount</Code> samples of <Code>sampleSize</Code> bytes spread evenly over a file, instead of
+     * the whole file. Only the sampled parts of the file are mapped and read. If the samples would cover the whole file it is
+     * counted in full. Positions of first appearance are positions within the samples put one after another.
+     *
+     * @param fileName     the file name
+     * @param sampleCount  amount of samples
+     * @param sampleSize   bytes per sample
+     * @return             frequencies of the sampled bytes
+     * @throws IOException if the file can not be read
+     */
+
+    public static FrequencyCounter sampleFile(String fileName, int sampleCount, int sampleSize) throws IOException{
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+
+        try{
+            FileChannel channel = file.getChannel();
+            long size = channel.size();
+            if(sampleCount <= 0 || sampleSize <= 0 || (long)sampleCount * sampleSize >= size){
+                return countFile(fileName);
+            }
+
+            // Samples start every "stride" bytes so that every part of the file is represented
+            long stride = size / sampleCount;
+            ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+            for(int i = 0; i < sampleCount; i++){
+                long position = i * stride;
+                chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(sampleSize, size - position)));
+            }
+
+            return countChunks(chunks);
+        }finally{
+            file.close();
+        }
+    }
+
+    /**
+     * Counts every byte from the position to the limit of <Code>buffer</Code>. The position of <Code>buffer</Code> is not changed.
+     *
+     * @param buffer     bytes to count
+     * @param chunkSize  amount of bytes counted by one task
+     * @return           frequencies of the buffer's bytes
+     */
+
+    public static FrequencyCounter countBuffer(ByteBuffer buffer, int chunkSize){
+        ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+        addChunks(chunks, buffer, chunkSize);
+        return countChunks(chunks);
+    }
+
+    /**
+     * Cuts <Code>buffer</Code> into chunks that share its content.
+     *
+     * @param chunks     list that receives the chunks
+     * @param buffer     bytes to cut
+     * @param chunkSize  size of every chunk but the last
+     */
+
+    private static void addChunks(ArrayList<ByteBuffer> chunks, ByteBuffer buffer, int chunkSize){
+        for(int position = buffer.position(); position < buffer.limit(); position += chunkSize){
+            ByteBuffer chunk = buffer.duplicate();
+            chunk.position(position);
+            chunk.limit((int)Math.min((long)position + chunkSize, buffer.limit()));
+            chunks.add(chunk);
+        }
+    }
+
+    /**
+     * Counts all chunks on the fork/join pool.
+     *
+     * @param chunks  chunks in the order in which they appear in the input
+     * @return        frequencies of all chunks together
+     */
+
+    private static FrequencyCounter countChunks(ArrayList<ByteBuffer> chunks){
+        long start = CodecMetrics.INSTANCE.startTimer();
+
+        FrequencyCounter counter;
+        if(chunks.isEmpty()){
+            counter = new FrequencyCounter();
+        }else{
+            counter = Compression.FORK_JOIN_POOL.invoke(new CountTask(chunks, 0, chunks.size()));
+        }
+
+        CodecMetrics.INSTANCE.recordHistogram(start, counter.byteCount);
+        return counter;
+    }
+
+    /**
+     * Counts one chunk in the calling thread.
+     *
+     * @param chunk  bytes to count
+     * @return       frequencies of the chunk's bytes
+     */
+
+    private static FrequencyCounter countChunk(ByteBuffer chunk){
+        FrequencyCounter counter = new FrequencyCounter();
+        long[] frequencies = counter.frequencies;
+        long letterCount = 0;
+        long offset = 0;
+        byte[] bytes = new byte[Math.min(READ_BUFFER_SIZE, chunk.remaining())];
+        chunk = chunk.duplicate();
+
+        while(chunk.hasRemaining()){
+            int length = Math.min(bytes.length, chunk.remaining());
+            chunk.get(bytes, 0, length);
+
+            for(int i = 0; i < length; i++){
+                int value = bytes[i] & 0xFF;
+                if(frequencies[value]++ == 0){
+                    // First time this byte is met so remember where
+                    counter.firstOffsets[value] = offset + i;
+                    counter.firstLetterPositions[value] = letterCount;
+                }
+                int lowerCaseValue = value | 0x20; // Setting this bit makes an upper case letter lower case
+                if(lowerCaseValue >= 'a' && lowerCaseValue <= 'z'){
+                    letterCount++;
+                }
+            }
+            offset += length;
+        }
+
+        counter.byteCount = offset;
+        counter.letterCount = letterCount;
+        return counter;
+    }
+
+    /**
+     * Adds the frequencies of <Code>next</Code>, which was counted from the input right after this one.
+     *
+     * @param next  frequencies of the following input
+     */
+
+    private void append(FrequencyCounter next){
+        for(int value = 0; value < 256; value++){
+            if(frequencies[value] == 0 && next.frequencies[value] > 0){
+                firstOffsets[value] = byteCount + next.firstOffsets[value];
+                firstLetterPositions[value] = letterCount + next.firstLetterPositions[value];
+            }
+            frequencies[value] += next.frequencies[value];
+        }
+
+        byteCount += next.byteCount;
+        letterCount += next.letterCount;
+    }
+
+    /**
+     * Counts a range of chunks by splitting it in half until one chunk is left.
+     */
+
+    private static class CountTask extends RecursiveTask<FrequencyCounter>{
+        private ArrayList<ByteBuffer> chunks;
+        private int start;
+        private int end;
+
+        public CountTask(ArrayList<ByteBuffer> chunks, int start, int end){
+            this.chunks = chunks;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected FrequencyCounter compute(){
+            if(end - start == 1){
+                return countChunk(chunks.get(start));
+            }
+
+            int middle = (start + end) >>> 1;
+            CountTask secondHalf = new CountTask(chunks, middle, end);
+            secondHalf.fork();
+            FrequencyCounter result = new CountTask(chunks, start, middle).compute();
+            result.append(secondHalf.join());
+            return result;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Huffman is a class that constructs Huffman codes based on any given alphabet or text.
@@ -31,6 +37,9 @@ import java.util.Map;
  * <p><b>Step 3:</b> call <Code>setupHuffmanCodes()</Code> to build the codes
  * <p><Code>huffmanDictionary.setupHuffmanCodes();</Code>
  *
+ * <p><b>Note:</b> call <Code>setupCanonicalHuffmanCodes()</Code> instead to build canonical codes. Canonical codes
+ * can be stored as one code length per symbol with <Code>getCodeLengths()</Code> and rebuilt with <Code>setupDictionaryFromCodeLengths()</Code>.
+ *
  * <p><b>Printing codes:</b>
  * <p><Code>huffmanDictionary.printCodes();</Code>
  */
@@ -55,7 +64,7 @@ public class Huffman extends Compression{
      * Once <Code>dictionary</Code> from <Code>Compression</Code> class is initialized from
      * input this method is called to build the Huffman codes. Specifically, an {@code ArrayList<Code>} containing
      * all symbols and frequencies is initialized from which a Huffman tree is built.
-     * Having this Huffman tree recursion is  used to derive the codes for every symbol.
+     * Having this Huffman tree the code of every symbol is derived by following its parents up to the root.
      * <p>
      * <b>Precondition</b>: dictionary is initialized from a valid file using <Code>setupDictionaryFromFile(String fileName, boolean isAlphabetRawText)</Code>
      */
@@ -64,9 +73,63 @@ public class Huffman extends Compression{
         if(dictionary == null){
             System.out.println("Dictionary is null");
         }else{
+            CodecMetrics metrics = CodecMetrics.INSTANCE;
+            long start = metrics.startTimer();
             ArrayList<Code> nodeList = buildNodeList();
             nodeList = buildHuffmanTree(nodeList);
+            metrics.recordTreeBuild(start);
+
+            start = metrics.startTimer();
             buildHuffmanCodes(nodeList);
+            metrics.recordCodeAssignment(start);
+        }
+    }
+
+    /**
+     * Does the same as <Code>setupDictionaryFromFile(fileName, isAlphabetRawText)</Code> followed by <Code>setupHuffmanCodes()</Code>,
+     * but the codebook is kept in <Code>CodebookCache.SHARED</Code>. As long as the file does not change, setting up the same file
+     * again costs one lookup and a copy of the codebook instead of reading the file and building the Huffman tree.
+     *
+     * @param fileName          name of the file
+     * @param isAlphabetRawText indicates whether or not the file's contents is raw text
+     */
+
+    public void setupHuffmanCodesFromFile(String fileName, boolean isAlphabetRawText){
+        Object key = CodebookCache.getFileKey(fileName, isAlphabetRawText);
+        CodebookCache.Codebook codebook = key == null ? null : CodebookCache.SHARED.get(key);
+
+        if(codebook != null){
+            codebook.copyTo(this);
+        }else{
+            setupDictionaryFromFile(fileName, isAlphabetRawText);
+            setupHuffmanCodes();
+            if(key != null){
+                CodebookCache.SHARED.put(key, new CodebookCache.Codebook(dictionary, originalAlphabetOrder));
+            }
+        }
+    }
+
+    /**
+     * Does the same as <Code>setupHuffmanCodes()</Code>, but codes built before from an equal frequency table are taken from
+     * <Code>CodebookCache.SHARED</Code> instead of building the Huffman tree again.
+     * <p>
+     * <b>Precondition</b>: dictionary is initialized from a valid file using <Code>setupDictionaryFromFile(String fileName, boolean isAlphabetRawText)</Code>
+     */
+
+    public void setupCachedHuffmanCodes(){
+        if(dictionary == null){
+            System.out.println("Dictionary is null");
+            return;
+        }
+
+        Object key = CodebookCache.getFrequencyKey(dictionary);
+        CodebookCache.Codebook codebook = CodebookCache.SHARED.get(key);
+
+        if(codebook != null){
+            codebook.copyCodesTo(dictionary);
+        }else{
+            setupHuffmanCodes();
+            CodebookCache.SHARED.put(key, new CodebookCache.Codebook(dictionary, originalAlphabetOrder));
         }
     }
 
@@ -89,45 +152,489 @@ public class Huffman extends Compression{
     }
 
     /**
-     * Builds Huffman codes by merging nodeList values. This is done by looping through every element in the <Code>dictionary</Code> while
-     * checking keys that match with other keys from <Code>nodeList</Code>. If a match is found the entry's Huffman code is
-     * built recursively by <Code>mergeNodeValues()</Code>. Checking for a match is necessary as the <Code>nodeList</Code> contains
-     * parent nodes in addition to the original nodes. Because a parent node is a combination of two parentless nodes
-     * and does not provide access to it's child nodes values we must filter them out. Passing a parent node to <Code>mergeNodeValues()</Code>
-     * will cut off all child nodes and ultimately produce incorrect codes.
+     * Builds Huffman codes by merging nodeList values. The first <Code>dictionary.size()</Code> elements of <Code>nodeList</Code> are the
+     * original nodes made by <Code>buildNodeList()</Code> and every element after them is a parent node. Because of this only the original nodes
+     * are passed to <Code>mergeNodeValues()</Code> and each of them is matched with its <Code>dictionary</Code> entry by key. Passing a parent node to
+     * <Code>mergeNodeValues()</Code> would cut off all child nodes and ultimately produce incorrect codes.
      *
      * @param nodeList  {@code ArrayList<Code>} containing <Code>Code</Code>s with their symbol, frequency, and parent <Code>Code</Code>
      */
 
     private void buildHuffmanCodes(ArrayList<Code> nodeList){
-        // loop through every key in dictionary
-        for (Map.Entry<String, Code> entry: dictionary.entrySet()){
-            for(int i = 0; i < nodeList.size(); i++){
-                // "mergeNodeValues" recursively appends the code of this node's parents to form a Huffman code
-                if(entry.getKey().equals(nodeList.get(i).key)){
-                    entry.getValue().code = mergeNodeValues(nodeList.get(i));
-                    break;
-                }
-            }
+        // loop through every original node (parent nodes are placed after them)
+        for(int i = 0; i < dictionary.size(); i++){
+            Code node = nodeList.get(i);
+            // "mergeNodeValues" appends the code of this node's parents to form a Huffman code
+            dictionary.get(node.key).code = mergeNodeValues(node);
         }
     }
 
     /**
-     * This method recursively appends each node's parent code to a <Code>String</Code> to form a Huffman code.
+     * This method appends each node's parent code to form a Huffman code. The codes are collected from the node
+     * up to the root and then reversed, so building a code costs as much as its length.
      *
      * @param  node  a base <Code>Code</Code> which is not a parent of any other <Code>Code</Code>
      * @return       <Code>String</Code> with all parent's codes appended to the original <Code>code</Code>'s value that was passed
      */
 
     private String mergeNodeValues(Code node){
-        String huffmanCode = node.code;
+        StringBuilder huffmanCode = new StringBuilder();
 
-        // base case
-        if(node.parentCode == null){
-            return "";
-        }else{
-            // calls "mergeNodeValues" with the node's "parentCode" and appends it to the current node's code (huffmanCode).
-            return mergeNodeValues(node.parentCode) + huffmanCode;
+        // The root is the only node without a "parentCode" and it does not add to the code
+        while(node.parentCode != null){
+            huffmanCode.append(node.code);
+            node = node.parentCode;
+        }
+
+        return huffmanCode.reverse().toString();
+    }
+
+    /**
+     * Builds canonical Huffman codes. The code lengths are taken from the same Huffman tree that <Code>setupHuffmanCodes()</Code>
+     * builds, however the codes themselves are derived from the lengths alone. Symbols are sorted by code length and then by
+     * <Code>leftPosition</Code>. The first symbol gets a code of all "0"s and every next symbol gets the previous code plus one,
+     * with "0"s appended when the code length grows.
+     * <p>
+     * Because only the lengths are needed to rebuild these codes the codebook can be stored with <Code>getCodeLengths()</Code>
+     * and restored with <Code>setupDictionaryFromCodeLengths()</Code>.
+     * <p>
+     * <b>Precondition</b>: dictionary is initialized from a valid file using <Code>setupDictionaryFromFile(String fileName, boolean isAlphabetRawText)</Code>
+     *
+     * @throws Exception if <Code>dictionary</Code> is <Code>null</Code>
+     */
+
+    public void setupCanonicalHuffmanCodes() throws Exception{
+        if(dictionary == null){
+            throw new Exception("dictionary is null");
+        }
+
+        CodecMetrics metrics = CodecMetrics.INSTANCE;
+        long start = metrics.startTimer();
+        ArrayList<Code> nodeList = buildHuffmanTree(buildNodeList());
+        ArrayList<Code> symbols = getSymbols(nodeList);
+        int[] codeLengths = buildCodeLengths(nodeList);
+        metrics.recordTreeBuild(start);
+
+        start = metrics.startTimer();
+        assignCanonicalCodes(symbols, codeLengths);
+        metrics.recordCodeAssignment(start);
+    }
+
+    /**
+     * Builds canonical Huffman codes where no code is longer than <Code>maxCodeLength</Code>. If the Huffman tree already
+     * satisfies the limit its code lengths are used, otherwise the code lengths are found with the package-merge algorithm
+     * which gives the smallest total code size possible under the limit. Codes are then assigned the same way as in
+     * <Code>setupCanonicalHuffmanCodes()</Code>.
+     * <p>
+     * A limit such as 11, 12 or 15 bits allows decoding with fixed-size lookup tables. The ratio lost because of the limit
+     * can be found with <Code>calculateRatioLostToCodeLengthLimit()</Code>.
+     * <p>
+     * <b>Precondition</b>: dictionary is initialized from a valid file using <Code>setupDictionaryFromFile(String fileName, boolean isAlphabetRawText)</Code>
+     *
+     * @param maxCodeLength  longest code length allowed
+     * @throws Exception     if <Code>dictionary</Code> is <Code>null</Code> or it has more symbols than codes of <Code>maxCodeLength</Code> can represent
+     */
+
+    public void setupLengthLimitedHuffmanCodes(int maxCodeLength) throws Exception{
+        if(dictionary == null){
+            throw new Exception("dictionary is null");
+        }
+
+        CodecMetrics metrics = CodecMetrics.INSTANCE;
+        long start = metrics.startTimer();
+        ArrayList<Code> nodeList = buildHuffmanTree(buildNodeList());
+        ArrayList<Code> symbols = getSymbols(nodeList);
+        int[] codeLengths = buildCodeLengths(nodeList);
+
+        int longestCodeLength = 0;
+        for(int codeLength: codeLengths){
+            longestCodeLength = Math.max(longestCodeLength, codeLength);
+        }
+
+        // Only run package-merge when the Huffman tree is too deep
+        if(longestCodeLength > maxCodeLength){
+            long[] frequencies = new long[symbols.size()];
+            for(int i = 0; i < symbols.size(); i++){
+                frequencies[i] = symbols.get(i).frequency;
+            }
+            codeLengths = calculateLengthLimitedCodeLengths(frequencies, maxCodeLength);
+        }
+        metrics.recordTreeBuild(start);
+
+        start = metrics.startTimer();
+        assignCanonicalCodes(symbols, codeLengths);
+        metrics.recordCodeAssignment(start);
+    }
+
+    /**
+     * Builds canonical Huffman codes for a <Code>SymbolModel</Code>. This works on the model's arrays directly without building
+     * a <Code>dictionary</Code> or any <Code>Code</Code> objects. Only symbols with a frequency above 0 get a code, and a model
+     * with a single such symbol gives it a code of length 1 so that it can still be written.
+     *
+     * @param model      symbols and their frequencies. Receives the codes
+     * @throws Exception if a code would be longer than <Code>SymbolModel.MAX_CODE_LENGTH</Code>, in which case use
+     *                   <Code>setupLengthLimitedHuffmanCodes(SymbolModel, int)</Code>
+     */
+
+    public static void setupHuffmanCodes(SymbolModel model) throws Exception{
+        setupLengthLimitedHuffmanCodes(model, SymbolModel.MAX_CODE_LENGTH);
+    }
+
+    /**
+     * Builds canonical Huffman codes no longer than <Code>maxCodeLength</Code> for a <Code>SymbolModel</Code>. Like
+     * <Code>setupLengthLimitedHuffmanCodes(int)</Code> package-merge is only used when the Huffman tree is too deep.
+     *
+     * @param model          symbols and their frequencies. Receives the codes
+     * @param maxCodeLength  longest code length allowed, at most <Code>SymbolModel.MAX_CODE_LENGTH</Code>
+     * @throws Exception     if more symbols appear than codes of <Code>maxCodeLength</Code> can represent
+     */
+
+    public static void setupLengthLimitedHuffmanCodes(SymbolModel model, int maxCodeLength) throws Exception{
+        if(maxCodeLength > SymbolModel.MAX_CODE_LENGTH){
+            throw new Exception("Codes of a symbol model can not be longer than " + SymbolModel.MAX_CODE_LENGTH + " bits");
+        }
+
+        // Only symbols that appear get a code
+        int usedCount = 0;
+        for(int symbol = 0; symbol < model.size; symbol++){
+            if(model.frequencies[symbol] > 0){
+                usedCount++;
+            }
+        }
+        int[] usedSymbols = new int[usedCount];
+        long[] usedFrequencies = new long[usedCount];
+        usedCount = 0;
+        for(int symbol = 0; symbol < model.size; symbol++){
+            if(model.frequencies[symbol] > 0){
+                usedSymbols[usedCount] = symbol;
+                usedFrequencies[usedCount] = model.frequencies[symbol];
+                usedCount++;
+            }
+        }
+
+        CodecMetrics metrics = CodecMetrics.INSTANCE;
+        long start = metrics.startTimer();
+        int[] codeLengths = calculateCodeLengths(usedFrequencies);
+        int longestCodeLength = 0;
+        for(int codeLength: codeLengths){
+            longestCodeLength = Math.max(longestCodeLength, codeLength);
+        }
+        if(longestCodeLength > maxCodeLength){
+            codeLengths = calculateLengthLimitedCodeLengths(usedFrequencies, maxCodeLength);
+        }
+        if(usedCount == 1){
+            codeLengths[0] = 1;
+        }
+        metrics.recordTreeBuild(start);
+
+        start = metrics.startTimer();
+        Arrays.fill(model.codeLengths, (byte)0);
+        for(int i = 0; i < usedCount; i++){
+            model.codeLengths[usedSymbols[i]] = (byte)codeLengths[i];
+        }
+        model.assignCanonicalCodes();
+        metrics.recordCodeAssignment(start);
+    }
+
+    /**
+     * Returns the codebook as one code length per symbol in <Code>originalAlphabetOrder</Code>. Together with the alphabet
+     * this is all that is needed to rebuild canonical codes with <Code>setupDictionaryFromCodeLengths()</Code>.
+     * <p>
+     * <b>Precondition</b>: codes are built with <Code>setupCanonicalHuffmanCodes()</Code>
+     *
+     * @return           code length of every symbol in <Code>originalAlphabetOrder</Code>
+     * @throws Exception if a code is not built or is longer than 255
+     */
+
+    public byte[] getCodeLengths() throws Exception{
+        byte[] codeLengths = new byte[originalAlphabetOrder.size()];
+
+        for(int i = 0; i < originalAlphabetOrder.size(); i++){
+            String code = dictionary.get(originalAlphabetOrder.get(i)).code;
+            if(code == null || code.length() > 255){
+                throw new Exception("Code of \"" + originalAlphabetOrder.get(i) + "\" can not be stored as a code length");
+            }
+            codeLengths[i] = (byte)code.length();
+        }
+
+        return codeLengths;
+    }
+
+    /**
+     * Builds <Code>dictionary</Code> with canonical codes from an alphabet and its code lengths. This is the reverse of
+     * <Code>getCodeLengths()</Code>. Frequencies are not part of the codebook so every frequency is set to 0.
+     *
+     * @param alphabet     symbols in the same order as when the code lengths were stored
+     * @param codeLengths  code length of every symbol in <Code>alphabet</Code>
+     * @throws Exception   if the amount of code lengths is not the amount of symbols or the lengths do not form a prefix code
+     */
+
+    public void setupDictionaryFromCodeLengths(ArrayList<String> alphabet, byte[] codeLengths) throws Exception{
+        if(alphabet.size() != codeLengths.length){
+            throw new Exception("Alphabet has " + alphabet.size() + " symbols but there are " + codeLengths.length + " code lengths");
+        }
+
+        dictionary = new HashMap<String, Code>();
+        originalAlphabetOrder = new ArrayList<String>();
+
+        ArrayList<Code> symbols = new ArrayList<Code>();
+        int[] lengths = new int[codeLengths.length];
+        for(int i = 0; i < alphabet.size(); i++){
+            Code symbol = new Code(alphabet.get(i), 0, i, null); // Note: "i" keeps the order used when the codes were built
+            dictionary.put(symbol.key, symbol);
+            originalAlphabetOrder.add(symbol.key);
+            symbols.add(symbol);
+            lengths[i] = codeLengths[i] & 0xFF;
+        }
+
+        assignCanonicalCodes(symbols, lengths);
+    }
+
+    /**
+     * Finds the <Code>dictionary</Code> entry of every original node in <Code>nodeList</Code>.
+     *
+     * @param nodeList  {@code ArrayList<Code>} returned by <Code>buildHuffmanTree()</Code>
+     * @return          <Code>dictionary</Code>'s <Code>Code</Code>s in the same order as the original nodes in <Code>nodeList</Code>
+     */
+
+    private ArrayList<Code> getSymbols(ArrayList<Code> nodeList){
+        ArrayList<Code> symbols = new ArrayList<Code>();
+
+        for(int i = 0; i < dictionary.size(); i++){
+            symbols.add(dictionary.get(nodeList.get(i).key));
+        }
+
+        return symbols;
+    }
+
+    /**
+     * Finds the code length of every original node in <Code>nodeList</Code>, which is its depth in the Huffman tree.
+     *
+     * @param nodeList  {@code ArrayList<Code>} returned by <Code>buildHuffmanTree()</Code>
+     * @return          code lengths in the same order as the original nodes in <Code>nodeList</Code>
+     */
+
+    private int[] buildCodeLengths(ArrayList<Code> nodeList){
+        // Parents are always added after their children so walking "nodeList" backwards visits the root first ->
+        // -> which allows every depth to be found from the depth of its parent
+        IdentityHashMap<Code, Integer> depths = new IdentityHashMap<Code, Integer>();
+        for(int i = nodeList.size() - 1; i >= 0; i--){
+            Code node = nodeList.get(i);
+            depths.put(node, node.parentCode == null ? 0 : depths.get(node.parentCode) + 1);
+        }
+
+        int[] codeLengths = new int[dictionary.size()];
+        for(int i = 0; i < dictionary.size(); i++){
+            codeLengths[i] = depths.get(nodeList.get(i));
+        }
+
+        return codeLengths;
+    }
+
+    /**
+     * Finds Huffman code lengths from frequencies alone with the two-queue method. Symbols are sorted by frequency once, after which
+     * the two smallest nodes are always at the front of either the sorted symbols or the parent nodes, because parent nodes are made
+     * in order of growing frequency. Building the tree therefore takes linear time after sorting.
+     *
+     * @param frequencies  frequency of every symbol
+     * @return             code length of every symbol in the same order as <Code>frequencies</Code>
+     */
+
+    static int[] calculateCodeLengths(final long[] frequencies){
+        int symbolCount = frequencies.length;
+        int[] codeLengths = new int[symbolCount];
+        if(symbolCount < 2){
+            return codeLengths; // A single symbol has an empty code just like in "setupHuffmanCodes()"
+        }
+
+        Integer[] order = new Integer[symbolCount];
+        for(int i = 0; i < symbolCount; i++){
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                if(frequencies[first] != frequencies[second]){
+                    return frequencies[first] < frequencies[second] ? -1 : 1;
+                }
+                return first.compareTo(second);
+            }
+        });
+
+        // Nodes 0 to symbolCount - 1 are the sorted symbols and every node after them is a parent
+        long[] weights = new long[2 * symbolCount - 1];
+        int[] parents = new int[2 * symbolCount - 1];
+        for(int i = 0; i < symbolCount; i++){
+            weights[i] = frequencies[order[i]];
+        }
+
+        int nextSymbol = 0;
+        int nextParent = symbolCount;
+        for(int newParent = symbolCount; newParent < weights.length; newParent++){
+            for(int child = 0; child < 2; child++){
+                int node;
+                if(nextSymbol < symbolCount && (nextParent == newParent || weights[nextSymbol] <= weights[nextParent])){
+                    node = nextSymbol++;
+                }else{
+                    node = nextParent++;
+                }
+                weights[newParent] += weights[node];
+                parents[node] = newParent;
+            }
+        }
+
+        // A parent always comes after its children so walking backwards visits the root first
+        int[] depths = new int[weights.length];
+        for(int node = weights.length - 2; node >= 0; node--){
+            depths[node] = depths[parents[node]] + 1;
+        }
+        for(int i = 0; i < symbolCount; i++){
+            codeLengths[order[i]] = depths[i];
+        }
+
+        return codeLengths;
+    }
+
+    /**
+     * Finds code lengths no longer than <Code>maxCodeLength</Code> with the package-merge algorithm. Symbols are sorted by frequency
+     * and a list is built for every code length starting from the longest. The list of the longest length holds only the symbols while every
+     * shorter list merges the symbols with "packages", which are pairs of items from the longer list combined into one item.
+     * Taking the <Code>2n - 2</Code> cheapest items from the shortest list, and then going back through the pairs each chosen package was made from,
+     * every time a symbol is chosen its code length grows by one.
+     *
+     * @param frequencies    frequency of every symbol
+     * @param maxCodeLength  longest code length allowed
+     * @return               code length of every symbol in the same order as <Code>frequencies</Code>
+     * @throws Exception     if there are more symbols than codes of <Code>maxCodeLength</Code> can represent
+     */
+
+    static int[] calculateLengthLimitedCodeLengths(final long[] frequencies, int maxCodeLength) throws Exception{
+        int symbolCount = frequencies.length;
+        int[] codeLengths = new int[symbolCount];
+
+        if(maxCodeLength < 1 || (maxCodeLength < 31 && symbolCount > (1 << maxCodeLength))){
+            throw new Exception(symbolCount + " symbols can not have codes of at most " + maxCodeLength + " bits");
+        }
+        if(symbolCount < 2){
+            return codeLengths; // A single symbol has an empty code just like in "setupHuffmanCodes()"
+        }
+
+        // Sort symbols by frequency
+        ArrayList<Integer> order = new ArrayList<Integer>();
+        for(int i = 0; i < symbolCount; i++){
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                if(frequencies[first] != frequencies[second]){
+                    return frequencies[first] < frequencies[second] ? -1 : 1;
+                }
+                return first.compareTo(second);
+            }
+        });
+
+        // "items[level]" holds every item of a list: the symbol for a symbol and -1 for a package
+        int[][] items = new int[maxCodeLength][];
+        long[] previousWeights = new long[0];
+
+        for(int level = maxCodeLength - 1; level >= 0; level--){
+            int packageCount = previousWeights.length / 2;
+            int[] levelItems = new int[symbolCount + packageCount];
+            long[] levelWeights = new long[symbolCount + packageCount];
+
+            // Merge the sorted symbols with the packages (which are sorted as well)
+            int symbolIndex = 0;
+            int packageIndex = 0;
+            for(int i = 0; i < levelItems.length; i++){
+                long packageWeight = packageIndex < packageCount ? previousWeights[2 * packageIndex] + previousWeights[2 * packageIndex + 1] : Long.MAX_VALUE;
+                if(symbolIndex < symbolCount && frequencies[order.get(symbolIndex)] <= packageWeight){
+                    levelItems[i] = order.get(symbolIndex);
+                    levelWeights[i] = frequencies[order.get(symbolIndex)];
+                    symbolIndex++;
+                }else{
+                    levelItems[i] = -1;
+                    levelWeights[i] = packageWeight;
+                    packageIndex++;
+                }
+            }
+
+            items[level] = levelItems;
+            previousWeights = levelWeights;
+        }
+
+        // Choose the cheapest items from the shortest list and follow the packages back into the longer lists
+        int chosenCount = 2 * symbolCount - 2;
+        for(int level = 0; level < maxCodeLength && chosenCount > 0; level++){
+            int packageCount = 0;
+            for(int i = 0; i < chosenCount; i++){
+                if(items[level][i] == -1){
+                    packageCount++;
+                }else{
+                    codeLengths[items[level][i]]++;
+                }
+            }
+            chosenCount = 2 * packageCount;
+        }
+
+        return codeLengths;
+    }
+
+    /**
+     * Assigns canonical codes to <Code>symbols</Code>. Symbols are sorted by code length and then by <Code>leftPosition</Code>.
+     * The first symbol gets a code of all "0"s, and every next code is the previous code plus one followed by as many "0"s as needed to
+     * reach its length. A symbol with code length 0 gets an empty code as in the case of an alphabet with a single symbol.
+     *
+     * @param symbols      <Code>Code</Code>s that receive the canonical codes
+     * @param codeLengths  code length of every <Code>Code</Code> in <Code>symbols</Code>
+     * @throws Exception   if the code lengths do not form a prefix code
+     */
+
+    private static void assignCanonicalCodes(final ArrayList<Code> symbols, final int[] codeLengths) throws Exception{
+        ArrayList<Integer> order = new ArrayList<Integer>();
+        for(int i = 0; i < symbols.size(); i++){
+            order.add(i);
+        }
+
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                if(codeLengths[first] != codeLengths[second]){
+                    return codeLengths[first] < codeLengths[second] ? -1 : 1;
+                }
+                int firstPosition = symbols.get(first).leftPosition;
+                int secondPosition = symbols.get(second).leftPosition;
+                return firstPosition < secondPosition ? -1 : (firstPosition == secondPosition ? 0 : 1);
+            }
+        });
+
+        StringBuilder code = null;
+        for(int index: order){
+            int codeLength = codeLengths[index];
+            if(codeLength == 0){
+                symbols.get(index).code = "";
+                continue;
+            }
+
+            if(code == null){
+                code = new StringBuilder();
+            }else{
+                // Add one to the previous code
+                int position = code.length() - 1;
+                while(position >= 0 && code.charAt(position) == '1'){
+                    code.setCharAt(position, '0');
+                    position--;
+                }
+                if(position < 0){
+                    throw new Exception("Code lengths do not form a prefix code");
+                }
+                code.setCharAt(position, '1');
+            }
+
+            while(code.length() < codeLength){
+                code.append('0');
+            }
+            symbols.get(index).code = code.toString();
         }
     }
 
@@ -137,7 +644,11 @@ public class Huffman extends Compression{
      * and their concatenated symbols. Note that when concatenating the symbols the parent node puts the symbol earliest in the given alphabet before the other symbol. Additionally, if their frequencies are not equal,
      * the symbol with the smaller frequency receives a value of "0" and the symbol with the larger frequency receives a value of "1". If the symbols frequencies are equal
      * then the symbol whose first character came earlier in the original alphabet gets the "0" and the symbol whose first character came later in the alphabet gets a "1".
-     * This process continues recursively until only one parentless node is left and the Huffman tree is completed.
+     * This process continues until only one parentless node is left and the Huffman tree is completed.
+     * <p>
+     * The two smallest nodes are taken from a <Code>PriorityQueue</Code> ordered by frequency, so every merge costs O(log n) instead of a scan
+     * through the whole <Code>nodeList</Code>. When frequencies are equal the node placed later in <Code>nodeList</Code> comes first, which is the
+     * same node <Code>getMinNode()</Code> would pick, so the codes do not change.
      * <p>
      * <b>Note: a symbol and its frequency is a <Code>Code</Code>.</b>
      *
@@ -146,45 +657,60 @@ public class Huffman extends Compression{
      *                   the <Code>dictionary</Code> plus the new parent codes
      */
 
-    private ArrayList<Code> buildHuffmanTree(ArrayList<Code> nodeList){
-        Code firstMinNode = getMinNode(nodeList, null);
-        Code secondMinNode = getMinNode(nodeList, firstMinNode);
+    private ArrayList<Code> buildHuffmanTree(final ArrayList<Code> nodeList){
+        // Smallest frequency first. On equal frequencies the node with the larger index in "nodeList" comes first
+        PriorityQueue<Integer> queue = new PriorityQueue<Integer>(Math.max(1, nodeList.size()), new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                long firstFrequency = nodeList.get(first).frequency;
+                long secondFrequency = nodeList.get(second).frequency;
+                if(firstFrequency != secondFrequency){
+                    return firstFrequency < secondFrequency ? -1 : 1;
+                }
+                return second.compareTo(first);
+            }
+        });
+
+        for(int i = 0; i < nodeList.size(); i++){
+            if(nodeList.get(i).parentCode == null){
+                queue.add(i);
+            }
+        }
 
-        if((firstMinNode != null) && (secondMinNode != null)){
+        // Merge until we do not have two smallest nodes
+        while(queue.size() > 1){
+            Code firstMinNode = nodeList.get(queue.poll());
+            Code secondMinNode = nodeList.get(queue.poll());
             Code newParent = new Code(null, firstMinNode.frequency + secondMinNode.frequency, 0, null);
 
             // If the frequencies are the same the node with the leftmost symbol gets a '0' and the other gets a '1' ->
             // -> otherwise "firstMinNode" gets a "0" as is has the smallest frequency
+            // Note: a parent's "leftPosition" is the "leftPosition" of its first symbol so there is no need to split the key by "-"
             if(firstMinNode.frequency == secondMinNode.frequency){
-                // Note: first element in split() array is the left most symbol
-                // Gets first symbol from firstMinNode
-                String firstCharacter = firstMinNode.key.split("-")[0]; // split by "-" as that is how symbols are separated
-                // Gets first symbol from secondMinNode
-                String secondCharacter = secondMinNode.key.split("-")[0];
-
-                if(dictionary.get(firstCharacter).leftPosition < dictionary.get(secondCharacter).leftPosition){
+                if(firstMinNode.leftPosition < secondMinNode.leftPosition){
                     firstMinNode.code = "0";
                     secondMinNode.code = "1";
                     newParent.key = firstMinNode.key + "-" + secondMinNode.key;
+                    newParent.leftPosition = firstMinNode.leftPosition;
                 }else{
                     firstMinNode.code = "1";
                     secondMinNode.code = "0";
                     newParent.key = secondMinNode.key + "-" + firstMinNode.key;
+                    newParent.leftPosition = secondMinNode.leftPosition;
                 }
             }else{
                 firstMinNode.code = "0";
                 secondMinNode.code = "1";
                 // Adding "-" helps retrieve symbols (especially binomials) when comparing "leftPosition"'s with equal nodes value
                 newParent.key = firstMinNode.key + "-" + secondMinNode.key;
+                newParent.leftPosition = firstMinNode.leftPosition;
             }
 
             // Update nodes with the new parent node
             firstMinNode.parentCode = newParent;
             secondMinNode.parentCode = newParent;
             nodeList.add(newParent);
-
-            // recursively call "buildNodesTree" until we do not have two smallest nodes
-            buildHuffmanTree(nodeList);
+            queue.add(nodeList.size() - 1);
         }
 
         return nodeList;
@@ -192,41 +718,6 @@ public class Huffman extends Compression{
 
     // NOTE: HELPER METHODS BELLOW
 
-    /**
-     * Finds the smallest <Code>Code</Code> in <Code>nodeList</Code>. Note that if <Code>firstMinNode == null</Code> then it is simply ignored and the smallest <Code>Code</Code> is returned
-     * else <Code>firstMinNode</Code> is overlooked and the second smallest node is returned
-     *
-     * @param  nodeList        {@code ArrayList<Code>} with prebuilt codes from the <Code>buildNodeList()</Code> method
-     * @param  firstMinNode    <Code>Code</Code> to overlook. This allows to find second smallest <Code>Code</Code>
-     * @return                 minNode
-     */
-
-    private Code getMinNode(ArrayList<Code> nodeList, Code firstMinNode){
-        Code minNode = null;
-        for(Code node: nodeList){
-            // If a node has a "parentNode" that means its been previously combined with another node so therefore we avoid it.
-            if(node.parentCode == null){
-                if(firstMinNode == null){
-                    if((minNode == null) || (node.frequency <= minNode.frequency)){
-                        minNode = node;
-                    }
-                }else{
-                    if(firstMinNode != node){
-                        if(minNode == null){
-                            minNode = node;
-                        }
-                        if((node.frequency <= minNode.frequency)){
-                            minNode = node;
-                        }
-                    }
-                }
-            }
-        }
-
-        return minNode;
-    }
-
-
     /**
      * This method calculates ratio of space needed for encoding a given amount of letters
      * using fixed-length encoding to the space expected to be taken by Huffman code encoding.
@@ -234,6 +725,9 @@ public class Huffman extends Compression{
      * the lengths proportionally.
      * <p>
      * <b>Factor: totalTextSize / actual code size</b>
+     * <p>
+     * <b>Note:</b> the ratio is found with the current codes, so codes from <Code>setupLengthLimitedHuffmanCodes()</Code> give the ratio under
+     * the code length limit. <Code>calculateRatioLostToCodeLengthLimit()</Code> gives how much ratio the limit costs.
      *
      * @param totalTextSize  amount of letters to be compared in ratio. If totalTextSize is -1 then calculate ratio as is
      * @return               ratio of space needed for encoding a given amount of letters using fixed-length encoding to to the space expected to be taken by Huffman code encoding
@@ -277,6 +771,44 @@ public class Huffman extends Compression{
         }
     }
 
+    /**
+     * Finds how much of the ratio between fixed-length encoding and Huffman code encoding is lost because of a code length limit.
+     * The ratio of the current codes, for example those from <Code>setupLengthLimitedHuffmanCodes()</Code>, is subtracted from the ratio
+     * that codes without a length limit would give. If the current codes are not length limited the result is 0.
+     *
+     * @return            ratio given by codes without a length limit minus the ratio given by the current codes
+     * @throws Exception  if <Code>dictionary</Code> is <Code>null</Code> or codes are not set up
+     */
+
+    public double calculateRatioLostToCodeLengthLimit() throws Exception{
+        if(dictionary == null){
+            throw new Exception("dictionary is null");
+        }
+        for(Code code: dictionary.values()){
+            if(code.code == null){
+                throw new Exception("codes are not set up");
+            }
+        }
+
+        ArrayList<Code> nodeList = buildHuffmanTree(buildNodeList());
+        ArrayList<Code> symbols = getSymbols(nodeList);
+        int[] codeLengths = buildCodeLengths(nodeList);
+
+        int fixedLengthCodeSize = (int)Math.ceil(Math.log(dictionary.size()) / Math.log(2));
+        double totalLengthWithFixedLengthCodes = 0;
+        double totalLengthWithoutLimit = 0;
+        double totalLengthWithCurrentCodes = 0;
+
+        for(int i = 0; i < symbols.size(); i++){
+            totalLengthWithFixedLengthCodes += symbols.get(i).frequency * fixedLengthCodeSize;
+            // A single symbol is the root of the tree so its code length of 0 is counted as 1, as in "setupHuffmanCodes(SymbolModel)"
+            totalLengthWithoutLimit += symbols.get(i).frequency * Math.max(1, codeLengths[i]);
+            totalLengthWithCurrentCodes += symbols.get(i).frequency * Math.max(1, symbols.get(i).code.length());
+        }
+
+        return (totalLengthWithFixedLengthCodes / totalLengthWithoutLimit) - (totalLengthWithFixedLengthCodes / totalLengthWithCurrentCodes);
+    }
+
     /**
      * Finds deviation from the optimal encoding by calculating percent change between the total <Code>comparison</Code>
      * entropy and the total entropy of the object calling this method.
@@ -396,8 +928,7 @@ public class Huffman extends Compression{
         ArrayList<String> bestBinomials = new ArrayList<String>();
 
         // If "findBestBinomial" was previously true then "dictionary" was altered at exit of method. Because of this rebuild Huffman codes to have an original version of the dictionary
-        this.setupDictionaryFromFile(alphabetFile, false);
-        this.setupHuffmanCodes();
+        this.setupHuffmanCodesFromFile(alphabetFile, false);
 
         double minEntropy = 0;
         long bestBinomialFrequency = 0;
@@ -424,8 +955,8 @@ public class Huffman extends Compression{
 
             // Put binomial in dictionary
             dictionary.put(entry.getKey(), new Code(entry.getKey(), entry.getValue().frequency, dictionary.size(), null));
-            setupHuffmanCodes();
 
+            // Entropy only depends on the frequencies so codes are not built for every binomial
             double newAlphabetEntropy = calculateTotalAlphabetEntropy(false);
 
             if(printComputations){
@@ -495,6 +1026,52 @@ public class Huffman extends Compression{
             dictionary.put(bestBinomials.get(0), new Code(bestBinomials.get(0), bestBinomialFrequency, dictionary.size(), null));
         }
 
+        // Build the codes of the final dictionary once
+        setupHuffmanCodes();
+
         return bestBinomials;
     }
+
+    /**
+     * Selects binomials with a <Code>BinomialEvaluator</Code>, which scores every binomial of <Code>binomialFileName</Code> in parallel from
+     * a closed form of the entropy instead of changing <Code>dictionary</Code> for every binomial. In every round the binomial that lowers
+     * the total alphabet entropy the most is selected. The selected binomials are then added to <Code>dictionary</Code>, their frequency is
+     * subtracted from their letters and Huffman codes are built.
+     *
+     * @param binomialFileName  name of file in which binomials are located
+     * @param maxRounds         most binomials to select
+     * @return                  selected binomials in the order in which they were selected
+     * @throws Exception        if <Code>dictionary</Code> is <Code>null</Code>
+     * <p>
+     * <b>Precondition</b>: <Code>binomialFileName</Code> has ".txt" extension. Example: if file name is "binomials" pass as "binomials.txt"
+     */
+
+    public ArrayList<String> selectBinomials(String binomialFileName, int maxRounds) throws Exception{
+        if(dictionary == null){
+            throw new Exception("dictionary is null");
+        }
+
+        Huffman binomialFile = new Huffman();
+        binomialFile.setupDictionaryFromFile(binomialFileName, false);
+        String[] binomials = new String[binomialFile.originalAlphabetOrder.size()];
+        long[] frequencies = new long[binomials.length];
+        for(int i = 0; i < binomials.length; i++){
+            binomials[i] = binomialFile.originalAlphabetOrder.get(i);
+            frequencies[i] = binomialFile.dictionary.get(binomials[i]).frequency;
+        }
+
+        ArrayList<String> selectedBinomials = new BinomialEvaluator(dictionary).selectGreedily(binomials, frequencies, maxRounds);
+
+        for(String binomial: selectedBinomials){
+            long frequency = binomialFile.dictionary.get(binomial).frequency;
+            for(int i = 0; i < binomial.length(); i++){
+                dictionary.get(binomial.substring(i, i + 1)).frequency -= frequency;
+            }
+            dictionary.put(binomial, new Code(binomial, frequency, dictionary.size(), null));
+            originalAlphabetOrder.add(binomial);
+        }
+        setupHuffmanCodes();
+
+        return selectedBinomials;
+    }
 }
@@ -0,0 +1,239 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a container written by <Code>HuffmanContainerWriter</Code>. Opening a container reads only the header, the trailer and
+ * the memory-mapped block index, after which any block can be decoded on its own by mapping just that block.
+ * <p>
+ * Blocks can be read by several threads at the same time.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>HuffmanContainerReader reader = new HuffmanContainerReader("data.hufc");</Code>
+ * <p><Code>byte[] block = reader.readBlock(reader.findBlock(offset));</Code>
+ * <p><Code>reader.close();</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class HuffmanContainerReader{
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private ByteHuffman byteHuffman;
+    private int blockSize;
+    private ContainerBlock[] blocks;
+    private long uncompressedLength;
+
+    /**
+     * HuffmanContainerReader constructor which opens a container and reads its codebook and block index.
+     *
+     * @param fileName   the container file name
+     * @throws Exception if the file can not be read or is not a valid container
+     */
+
+    public HuffmanContainerReader(String fileName) throws Exception{
+        file = new RandomAccessFile(fileName, "r");
+
+        try{
+            channel = file.getChannel();
+            long fileSize = channel.size();
+            if(fileSize < HuffmanContainerWriter.HEADER_SIZE + HuffmanContainerWriter.TRAILER_SIZE){
+                throw new Exception("File " + fileName + " is too short to be a container");
+            }
+
+            // Header
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HuffmanContainerWriter.HEADER_SIZE);
+            if(header.getInt() != HuffmanContainerWriter.MAGIC){
+                throw new Exception("File " + fileName + " is not a container");
+            }
+            int version = header.get();
+            if(version != HuffmanContainerWriter.VERSION){
+                throw new Exception("Container version " + version + " is not supported");
+            }
+            blockSize = header.getInt();
+            byteHuffman = ByteHuffman.readCodeLengths(new BitStreamReader(header.slice(), HuffmanContainerWriter.CODEBOOK_SIZE * 8L));
+
+            // Trailer and block index
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, fileSize - HuffmanContainerWriter.TRAILER_SIZE, HuffmanContainerWriter.TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            int blockCount = trailer.getInt();
+            if(trailer.getInt() != HuffmanContainerWriter.MAGIC || blockCount < 0 || indexOffset < HuffmanContainerWriter.HEADER_SIZE
+                    || indexOffset + (long)blockCount * ContainerBlock.INDEX_ENTRY_SIZE != fileSize - HuffmanContainerWriter.TRAILER_SIZE){
+                throw new Exception("Container " + fileName + " does not end with a valid block index");
+            }
+
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, (long)blockCount * ContainerBlock.INDEX_ENTRY_SIZE);
+            blocks = new ContainerBlock[blockCount];
+            for(int i = 0; i < blockCount; i++){
+                blocks[i] = new ContainerBlock(index.getLong(), index.getInt(), index.getLong(), index.getInt(), index.getInt());
+                ContainerBlock block = blocks[i];
+                if(block.uncompressedOffset != uncompressedLength || block.uncompressedLength < 0 || block.uncompressedLength > blockSize
+                        || block.compressedOffset < HuffmanContainerWriter.HEADER_SIZE || block.compressedLength < 0
+                        || block.compressedOffset + block.compressedLength > indexOffset){
+                    throw new Exception("Entry " + i + " of the block index is not valid");
+                }
+                uncompressedLength += block.uncompressedLength;
+            }
+        }catch (Exception e){
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Decompresses a whole container into a file.
+     *
+     * @param inputFileName   the container file name
+     * @param outputFileName  file that receives the uncompressed bytes
+     * @throws Exception      if a file can not be read or written or a block is not valid
+     */
+
+    public static void decompressFile(String inputFileName, String outputFileName) throws Exception{
+        HuffmanContainerReader reader = new HuffmanContainerReader(inputFileName);
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFileName), BitStreamReader.STREAM_BUFFER_SIZE);
+
+        try{
+            byte[] buffer = new byte[reader.blockSize];
+            for(int i = 0; i < reader.getBlockCount(); i++){
+                reader.readBlock(i, buffer, 0);
+                outputStream.write(buffer, 0, reader.getBlock(i).uncompressedLength);
+            }
+            outputStream.flush();
+        }finally{
+            outputStream.close();
+            reader.close();
+        }
+    }
+
+    /**
+     * Decodes one block into a new array.
+     *
+     * @param blockIndex  index of the block
+     * @return            the uncompressed bytes of the block
+     * @throws Exception  if the block can not be read, is not valid or its checksum does not match
+     */
+
+    public byte[] readBlock(int blockIndex) throws Exception{
+        byte[] result = new byte[blocks[blockIndex].uncompressedLength];
+        readBlock(blockIndex, result, 0);
+        return result;
+    }
+
+    /**
+     * Decodes one block straight into <Code>output</Code>, for example into its slice of an array of all uncompressed bytes.
+     *
+     * @param blockIndex  index of the block
+     * @param output      array that receives the uncompressed bytes
+     * @param offset      index in <Code>output</Code> of the block's first byte
+     * @throws Exception  if the block can not be read, is not valid or its checksum does not match
+     */
+
+    public void readBlock(int blockIndex, byte[] output, int offset) throws Exception{
+        ContainerBlock block = blocks[blockIndex];
+        ByteBuffer encoded = channel.map(FileChannel.MapMode.READ_ONLY, block.compressedOffset, block.compressedLength);
+        BitStreamReader reader = new BitStreamReader(encoded, block.compressedLength * 8L);
+
+        if(byteHuffman.decode(reader, output, offset, block.uncompressedLength) != block.uncompressedLength){
+            CodecMetrics.INSTANCE.recordDecodeError();
+            throw new Exception("Block " + blockIndex + " ends early");
+        }
+        if(Crc32c.calculate(output, offset, block.uncompressedLength) != block.checksum){
+            CodecMetrics.INSTANCE.recordDecodeError();
+            throw new Exception("Checksum of block " + blockIndex + " does not match");
+        }
+    }
+
+    /**
+     * Finds the block that holds an uncompressed byte.
+     *
+     * @param uncompressedOffset  index of the byte in the uncompressed data
+     * @return                    index of the block, or -1 if <Code>uncompressedOffset</Code> is outside the data
+     */
+
+    public int findBlock(long uncompressedOffset){
+        int low = 0;
+        int high = blocks.length - 1;
+
+        // Binary search for the last block that starts at or before the offset
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            ContainerBlock block = blocks[middle];
+            if(uncompressedOffset < block.uncompressedOffset){
+                high = middle - 1;
+            }else if(uncompressedOffset >= block.uncompressedOffset + block.uncompressedLength){
+                low = middle + 1;
+            }else{
+                return middle;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the amount of blocks.
+     *
+     * @return amount of blocks
+     */
+
+    public int getBlockCount(){
+        return blocks.length;
+    }
+
+    /**
+     * Returns the index entry of a block.
+     *
+     * @param blockIndex  index of the block
+     * @return            offsets, lengths and checksum of the block
+     */
+
+    public ContainerBlock getBlock(int blockIndex){
+        return blocks[blockIndex];
+    }
+
+    /**
+     * Returns the amount of uncompressed bytes in the whole container.
+     *
+     * @return sum of the uncompressed lengths of all blocks
+     */
+
+    public long getUncompressedLength(){
+        return uncompressedLength;
+    }
+
+    /**
+     * Returns the codes of the container.
+     *
+     * @return codec built from the header's code lengths
+     */
+
+    public ByteHuffman getByteHuffman(){
+        return byteHuffman;
+    }
+
+    /**
+     * Closes the file. Blocks can not be read afterwards.
+     *
+     * @throws IOException if closing fails
+     */
+
+    public void close() throws IOException{
+        file.close();
+    }
+}
@@ -0,0 +1,246 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * Writes a self-describing container of Huffman-coded bytes. The container holds its own codebook so it can be decoded without
+ * the alphabet it was built from, and data is cut into blocks that can each be decoded on their own.
+ * <p><b>Format</b> (numbers are big-endian):
+ * <ul>
+ * <li>Header: magic "HUFC" (4 bytes), version (1 byte), block size (4 bytes) and the canonical code lengths of the 257 symbols of
+ *     <Code>ByteHuffman</Code> packed in 4 bits each (129 bytes)
+ * <li>Blocks: the codes of every block, starting on a whole byte. A block is decoded by its amount of uncompressed bytes so it
+ *     has no end-of-block code
+ * <li>Block index: for every block its uncompressed offset (8 bytes), uncompressed length (4 bytes), compressed offset (8 bytes),
+ *     compressed length (4 bytes) and the CRC-32C of its uncompressed bytes (4 bytes)
+ * <li>Trailer: offset of the block index (8 bytes), amount of blocks (4 bytes) and the magic again (4 bytes)
+ * </ul>
+ * <p><Code>HuffmanContainerReader</Code> reads the trailer and the index first, so any block can be decoded without reading the blocks before it.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class HuffmanContainerWriter{
+    public static final int MAGIC = 0x48554643; // "HUFC"
+    public static final int VERSION = 1;
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20; // 1 MB
+    public static final int CODEBOOK_SIZE = (ByteHuffman.SYMBOL_COUNT + 1) / 2; // 4 bits per code length
+    public static final int HEADER_SIZE = 4 + 1 + 4 + CODEBOOK_SIZE;
+    public static final int TRAILER_SIZE = 8 + 4 + 4;
+
+    private DataOutputStream stream;
+    private ByteHuffman byteHuffman;
+    private int blockSize;
+    private long position; // Bytes written to the container so far
+    private long uncompressedPosition;
+    private ArrayList<ContainerBlock> blocks = new ArrayList<ContainerBlock>();
+
+    private byte[] pendingBytes; // Bytes given to "write()" that do not yet fill a whole block
+    private int pendingLength;
+
+    /**
+     * HuffmanContainerWriter constructor which writes the header. The stream is not closed by the writer.
+     *
+     * @param stream       stream that receives the container
+     * @param byteHuffman  codes used for every block
+     * @param blockSize    amount of uncompressed bytes in every block but the last
+     * @throws Exception  if <Code>blockSize</Code> is not positive or the header can not be written
+     */
+
+    public HuffmanContainerWriter(OutputStream stream, ByteHuffman byteHuffman, int blockSize) throws Exception{
+        if(blockSize <= 0){
+            throw new Exception("Block size must be positive but is " + blockSize);
+        }
+
+        this.stream = new DataOutputStream(new BufferedOutputStream(stream, BitStreamReader.STREAM_BUFFER_SIZE));
+        this.byteHuffman = byteHuffman;
+        this.blockSize = blockSize;
+
+        this.stream.writeInt(MAGIC);
+        this.stream.writeByte(VERSION);
+        this.stream.writeInt(blockSize);
+        BitStreamWriter codebook = new BitStreamWriter();
+        byteHuffman.writeCodeLengths(codebook);
+        this.stream.write(codebook.toAlignedByteArray());
+        position = HEADER_SIZE;
+    }
+
+    /**
+     * Compresses a file into a container. The file is memory-mapped, its bytes are counted in parallel to build the codebook
+     * and every block is then encoded in order.
+     *
+     * @param inputFileName   file to compress, at most 2 GB
+     * @param outputFileName  file that receives the container
+     * @param blockSize       amount of uncompressed bytes in every block but the last
+     * @throws Exception      if a file can not be read or written
+     */
+
+    public static void compressFile(String inputFileName, String outputFileName, int blockSize) throws Exception{
+        RandomAccessFile inputFile = new RandomAccessFile(inputFileName, "r");
+        OutputStream outputStream = new FileOutputStream(outputFileName);
+
+        try{
+            FileChannel channel = inputFile.getChannel();
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException("File " + inputFileName + " is larger than 2 GB");
+            }
+            ByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            HuffmanContainerWriter writer = new HuffmanContainerWriter(outputStream, ByteHuffman.fromData(input), blockSize);
+            for(int offset = 0; offset < input.limit(); offset += blockSize){
+                ByteBuffer block = input.duplicate();
+                block.position(offset);
+                block.limit(Math.min(offset + blockSize, input.limit()));
+                writer.writeBlock(block);
+            }
+            writer.finish();
+        }finally{
+            outputStream.close();
+            inputFile.close();
+        }
+    }
+
+    /**
+     * Adds bytes to the container. Whenever <Code>blockSize</Code> bytes have been collected they are encoded as one block.
+     *
+     * @param data       bytes to add
+     * @param offset     index of the first byte in <Code>data</Code>
+     * @param length     amount of bytes
+     * @throws Exception if a byte does not have a code or writing fails
+     */
+
+    public void write(byte[] data, int offset, int length) throws Exception{
+        if(pendingBytes == null){
+            pendingBytes = new byte[blockSize];
+        }
+
+        while(length > 0){
+            int count = Math.min(length, blockSize - pendingLength);
+            System.arraycopy(data, offset, pendingBytes, pendingLength, count);
+            pendingLength += count;
+            offset += count;
+            length -= count;
+
+            if(pendingLength == blockSize){
+                writeBlock(ByteBuffer.wrap(pendingBytes, 0, pendingLength));
+                pendingLength = 0;
+            }
+        }
+    }
+
+    /**
+     * Encodes and writes one block right away. The block may be shorter than <Code>blockSize</Code> but not longer.
+     *
+     * @param data       bytes from the position to the limit of the buffer. The position is not changed
+     * @throws Exception if the block is too long, a byte does not have a code or writing fails
+     */
+
+    public void writeBlock(ByteBuffer data) throws Exception{
+        if(data.remaining() > blockSize){
+            throw new Exception("Block of " + data.remaining() + " bytes is longer than the block size " + blockSize);
+        }
+
+        writeEncodedBlock(encodeBlock(byteHuffman, data), data.remaining(), calculateChecksum(data));
+    }
+
+    /**
+     * Writes one block that was already encoded with <Code>encodeBlock()</Code>, for example by another thread.
+     * Blocks must be written in the order of the uncompressed data.
+     *
+     * @param encoded             packed codes of the block
+     * @param uncompressedLength  amount of bytes the block decodes to
+     * @param checksum            CRC-32C of the uncompressed bytes
+     * @throws IOException        if writing fails
+     */
+
+    public void writeEncodedBlock(byte[] encoded, int uncompressedLength, int checksum) throws IOException{
+        stream.write(encoded);
+        blocks.add(new ContainerBlock(uncompressedPosition, uncompressedLength, position, encoded.length, checksum));
+        position += encoded.length;
+        uncompressedPosition += uncompressedLength;
+    }
+
+    /**
+     * Writes the remaining bytes as the last block, then the block index and the trailer, and flushes the stream.
+     *
+     * @throws Exception if a byte does not have a code or writing fails
+     */
+
+    public void finish() throws Exception{
+        if(pendingLength > 0){
+            writeBlock(ByteBuffer.wrap(pendingBytes, 0, pendingLength));
+            pendingLength = 0;
+        }
+
+        long indexOffset = position;
+        for(ContainerBlock block: blocks){
+            stream.writeLong(block.uncompressedOffset);
+            stream.writeInt(block.uncompressedLength);
+            stream.writeLong(block.compressedOffset);
+            stream.writeInt(block.compressedLength);
+            stream.writeInt(block.checksum);
+        }
+
+        stream.writeLong(indexOffset);
+        stream.writeInt(blocks.size());
+        stream.writeInt(MAGIC);
+        stream.flush();
+    }
+
+    /**
+     * Encodes one block without an end-of-block code. This does not change any writer so blocks can be encoded by several threads.
+     *
+     * @param byteHuffman  codes of the container
+     * @param data         bytes from the position to the limit of the buffer. The position is not changed
+     * @return             packed codes filled up to a whole byte
+     * @throws Exception   if a byte does not have a code
+     */
+
+    public static byte[] encodeBlock(ByteHuffman byteHuffman, ByteBuffer data) throws Exception{
+        BitStreamWriter writer = new BitStreamWriter(data.remaining()); // Codes are rarely longer than the bytes themselves
+        byteHuffman.encode(data, writer);
+        return writer.toAlignedByteArray();
+    }
+
+    /**
+     * Computes the CRC-32C of the bytes from the position to the limit of <Code>data</Code>. The position is not changed.
+     *
+     * @param data  bytes to check
+     * @return      the checksum
+     */
+
+    public static int calculateChecksum(ByteBuffer data){
+        if(data.hasArray()){
+            return Crc32c.calculate(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        }
+
+        // Memory-mapped data is copied to the checksum a part at a time
+        Crc32c checksum = new Crc32c();
+        byte[] part = new byte[Math.min(data.remaining(), BitStreamReader.STREAM_BUFFER_SIZE)];
+        ByteBuffer source = data.duplicate();
+        while(source.hasRemaining()){
+            int count = Math.min(part.length, source.remaining());
+            source.get(part, 0, count);
+            checksum.update(part, 0, count);
+        }
+        return (int)checksum.getValue();
+    }
+}
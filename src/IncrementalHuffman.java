@@ -0,0 +1,377 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Huffman code lengths that are kept up to date while a few frequencies change, for loops that try many small changes to a model
+ * such as adding a binomial and taking its frequency away from its letters.
+ * <p>
+ * Symbols are kept sorted by frequency, so a change only moves the changed symbols to their new places in the order. Code lengths
+ * are then found again with the two-queue method, which builds the Huffman tree from the sorted symbols in linear time with
+ * preallocated arrays, without sorting, <Code>Code</Code> objects or code strings. Code lengths are only found again when they are asked for.
+ * <p>
+ * Every change is written to an undo log. <Code>mark()</Code> returns a point in the log and <Code>rollback()</Code> undoes every change
+ * made after it, so trying a change and taking it back costs a few moves in the order instead of a full rebuild.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>int mark = incrementalHuffman.mark();</Code>
+ * <p><Code>incrementalHuffman.changeFrequency(symbol, -100);</Code>
+ * <p><Code>long cost = incrementalHuffman.calculateEncodedBitLength();</Code>
+ * <p><Code>incrementalHuffman.rollback(mark);</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class IncrementalHuffman{
+    private int size;
+    private long[] frequencies;
+    private int[] codeLengths;
+    private int[] order; // Symbols sorted by frequency and then by symbol
+    private int[] ranks; // Place of every symbol in "order"
+    private boolean codeLengthsValid;
+
+    // Undo log: the symbol and its frequency before every change. A symbol of -1 means a symbol was added
+    private int[] logSymbols = new int[16];
+    private long[] logFrequencies = new long[16];
+    private int logSize;
+
+    // Arrays of the two-queue method, kept between updates
+    private long[] leafWeights;
+    private int[] leafParents;
+    private long[] internalWeights;
+    private int[] internalParents;
+    private int[] internalDepths;
+
+    /**
+     * IncrementalHuffman constructor which sorts the symbols and finds their code lengths.
+     *
+     * @param frequencies  frequency of every symbol. Symbols with a frequency of 0 or less do not get a code
+     */
+
+    public IncrementalHuffman(long[] frequencies){
+        this.size = frequencies.length;
+        this.frequencies = Arrays.copyOf(frequencies, Math.max(16, size));
+        this.codeLengths = new int[this.frequencies.length];
+        this.ranks = new int[this.frequencies.length];
+
+        // Sort once, every later change only moves single symbols
+        Integer[] sortedSymbols = new Integer[size];
+        for(int symbol = 0; symbol < size; symbol++){
+            sortedSymbols[symbol] = symbol;
+        }
+        Arrays.sort(sortedSymbols, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return comesBefore(first, second) ? -1 : (first.equals(second) ? 0 : 1);
+            }
+        });
+        this.order = new int[this.frequencies.length];
+        for(int rank = 0; rank < size; rank++){
+            order[rank] = sortedSymbols[rank];
+            ranks[order[rank]] = rank;
+        }
+
+        updateCodeLengths();
+    }
+
+    /**
+     * Returns the amount of symbols.
+     *
+     * @return amount of symbols, including added ones
+     */
+
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Returns the frequency of a symbol.
+     *
+     * @param symbol  symbol from 0 to <Code>getSize() - 1</Code>
+     * @return        its frequency
+     */
+
+    public long getFrequency(int symbol){
+        return frequencies[symbol];
+    }
+
+    /**
+     * Adds <Code>delta</Code> to the frequency of a symbol.
+     *
+     * @param symbol  symbol from 0 to <Code>getSize() - 1</Code>
+     * @param delta   amount to add, which can be negative
+     */
+
+    public void changeFrequency(int symbol, long delta){
+        addToLog(symbol, frequencies[symbol]);
+        setFrequency(symbol, frequencies[symbol] + delta);
+    }
+
+    /**
+     * Adds a new symbol, for example a binomial.
+     *
+     * @param frequency  frequency of the new symbol
+     * @return           the new symbol, which is the previous <Code>getSize()</Code>
+     */
+
+    public int addSymbol(long frequency){
+        if(size == frequencies.length){
+            int capacity = frequencies.length * 2;
+            frequencies = Arrays.copyOf(frequencies, capacity);
+            codeLengths = Arrays.copyOf(codeLengths, capacity);
+            order = Arrays.copyOf(order, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+        }
+
+        int symbol = size++;
+        addToLog(-1, 0);
+        frequencies[symbol] = frequency;
+        order[symbol] = symbol;
+        ranks[symbol] = symbol;
+        moveToRank(symbol);
+        codeLengthsValid = false;
+
+        return symbol;
+    }
+
+    /**
+     * Returns a point in the undo log for <Code>rollback()</Code>.
+     *
+     * @return amount of changes made so far
+     */
+
+    public int mark(){
+        return logSize;
+    }
+
+    /**
+     * Undoes every change made after <Code>mark</Code>, newest first.
+     *
+     * @param mark  a value returned by <Code>mark()</Code>
+     */
+
+    public void rollback(int mark){
+        while(logSize > mark){
+            logSize--;
+            int symbol = logSymbols[logSize];
+
+            if(symbol == -1){
+                // Remove the added symbol, which is always the last one, by moving it to the end of the order
+                int lastSymbol = size - 1;
+                frequencies[lastSymbol] = Long.MAX_VALUE;
+                moveToRank(lastSymbol);
+                size--;
+            }else{
+                setFrequency(symbol, logFrequencies[logSize]);
+            }
+        }
+        codeLengthsValid = false;
+    }
+
+    /**
+     * Forgets the undo log so that the current state can no longer be rolled back. Keeps the log from growing in a loop that keeps its changes.
+     */
+
+    public void commit(){
+        logSize = 0;
+    }
+
+    /**
+     * Returns the code length of a symbol, finding the code lengths again if a frequency changed.
+     *
+     * @param symbol  symbol from 0 to <Code>getSize() - 1</Code>
+     * @return        its Huffman code length, 0 for a symbol without a code
+     */
+
+    public int getCodeLength(int symbol){
+        updateCodeLengths();
+        return codeLengths[symbol];
+    }
+
+    /**
+     * Finds the amount of bits needed to encode every symbol as many times as its frequency.
+     *
+     * @return sum of frequency times code length
+     */
+
+    public long calculateEncodedBitLength(){
+        updateCodeLengths();
+
+        long bitLength = 0;
+        for(int symbol = 0; symbol < size; symbol++){
+            if(codeLengths[symbol] > 0){
+                bitLength += frequencies[symbol] * codeLengths[symbol];
+            }
+        }
+        return bitLength;
+    }
+
+    /**
+     * Builds a <Code>SymbolModel</Code> with the current frequencies, code lengths and canonical codes.
+     *
+     * @return           model with <Code>getSize()</Code> symbols
+     * @throws Exception if there are too many symbols or a code is longer than <Code>SymbolModel.MAX_CODE_LENGTH</Code>
+     */
+
+    public SymbolModel toSymbolModel() throws Exception{
+        updateCodeLengths();
+
+        SymbolModel model = new SymbolModel(size);
+        for(int symbol = 0; symbol < size; symbol++){
+            model.frequencies[symbol] = frequencies[symbol];
+            if(codeLengths[symbol] > SymbolModel.MAX_CODE_LENGTH){
+                throw new Exception("Code of symbol " + symbol + " is longer than " + SymbolModel.MAX_CODE_LENGTH + " bits");
+            }
+            model.codeLengths[symbol] = (byte)codeLengths[symbol];
+        }
+        model.assignCanonicalCodes();
+
+        return model;
+    }
+
+    /**
+     * Finds the code lengths again with the two-queue method if a frequency changed since they were last found. Symbols are taken
+     * in sorted order from the first queue, merged nodes are created in increasing order of weight in the second queue, and the
+     * two lightest heads are merged until one node is left.
+     */
+
+    public void updateCodeLengths(){
+        if(codeLengthsValid){
+            return;
+        }
+        codeLengthsValid = true;
+
+        // Symbols with a frequency of 0 or less come first in the order and do not get a code
+        int firstUsedRank = 0;
+        while(firstUsedRank < size && frequencies[order[firstUsedRank]] <= 0){
+            codeLengths[order[firstUsedRank]] = 0;
+            firstUsedRank++;
+        }
+        int leafCount = size - firstUsedRank;
+        if(leafCount == 1){
+            codeLengths[order[firstUsedRank]] = 1; // A single symbol still needs one bit to be written, as in "setupHuffmanCodes(SymbolModel)"
+        }
+        if(leafCount < 2){
+            return;
+        }
+
+        if(leafWeights == null || leafWeights.length < leafCount){
+            leafWeights = new long[frequencies.length];
+            leafParents = new int[frequencies.length];
+            internalWeights = new long[frequencies.length];
+            internalParents = new int[frequencies.length];
+            internalDepths = new int[frequencies.length];
+        }
+        for(int i = 0; i < leafCount; i++){
+            leafWeights[i] = frequencies[order[firstUsedRank + i]];
+        }
+
+        // "leaf" and "internal" are the heads of the two queues, "created" is the amount of merged nodes
+        int leaf = 0;
+        int internal = 0;
+        for(int created = 0; created < leafCount - 1; created++){
+            long weight = 0;
+            for(int child = 0; child < 2; child++){
+                // Take a leaf when it weighs no more than the lightest merged node so codes stay as short as possible
+                if(leaf < leafCount && (internal == created || leafWeights[leaf] <= internalWeights[internal])){
+                    weight += leafWeights[leaf];
+                    leafParents[leaf++] = created;
+                }else{
+                    weight += internalWeights[internal];
+                    internalParents[internal++] = created;
+                }
+            }
+            internalWeights[created] = weight;
+        }
+
+        // The last merged node is the root. Every other node was merged into a node created after it
+        int root = leafCount - 2;
+        internalDepths[root] = 0;
+        for(int node = root - 1; node >= 0; node--){
+            internalDepths[node] = internalDepths[internalParents[node]] + 1;
+        }
+        for(int i = 0; i < leafCount; i++){
+            codeLengths[order[firstUsedRank + i]] = internalDepths[leafParents[i]] + 1;
+        }
+    }
+
+    /**
+     * Changes the frequency of a symbol and moves it to its new place in the order.
+     *
+     * @param symbol     symbol to change
+     * @param frequency  new frequency
+     */
+
+    private void setFrequency(int symbol, long frequency){
+        frequencies[symbol] = frequency;
+        moveToRank(symbol);
+        codeLengthsValid = false;
+    }
+
+    /**
+     * Moves a symbol whose frequency changed left or right in <Code>order</Code> until the order is sorted again.
+     *
+     * @param symbol  symbol to move
+     */
+
+    private void moveToRank(int symbol){
+        int rank = ranks[symbol];
+
+        while(rank > 0 && comesBefore(symbol, order[rank - 1])){
+            order[rank] = order[rank - 1];
+            ranks[order[rank]] = rank;
+            rank--;
+        }
+        while(rank < size - 1 && comesBefore(order[rank + 1], symbol)){
+            order[rank] = order[rank + 1];
+            ranks[order[rank]] = rank;
+            rank++;
+        }
+
+        order[rank] = symbol;
+        ranks[symbol] = rank;
+    }
+
+    /**
+     * Compares two symbols by frequency and then by symbol.
+     *
+     * @param first   symbol
+     * @param second  other symbol
+     * @return        whether <Code>first</Code> comes before <Code>second</Code> in the order
+     */
+
+    private boolean comesBefore(int first, int second){
+        if(frequencies[first] != frequencies[second]){
+            return frequencies[first] < frequencies[second];
+        }
+        return first < second;
+    }
+
+    /**
+     * Adds a change to the undo log.
+     *
+     * @param symbol     changed symbol, or -1 for an added symbol
+     * @param frequency  frequency before the change
+     */
+
+    private void addToLog(int symbol, long frequency){
+        if(logSize == logSymbols.length){
+            logSymbols = Arrays.copyOf(logSymbols, logSymbols.length * 2);
+            logFrequencies = Arrays.copyOf(logFrequencies, logFrequencies.length * 2);
+        }
+        logSymbols[logSize] = symbol;
+        logFrequencies[logSize] = frequency;
+        logSize++;
+    }
+}
@@ -78,8 +78,7 @@ public class Main {
                     break;
                 case "4":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem4Alphabet.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem4Alphabet.txt", false);
 
                     System.out.println("\"ace\" encoded: " + huffmanDictionary.encodeInput("ace"));
                     System.out.println("\"add\" encoded: " + huffmanDictionary.encodeInput("add"));
@@ -88,8 +87,7 @@ public class Main {
                     break;
                 case "5":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem4Alphabet.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem4Alphabet.txt", false);
 
                     double totalLengthWithHuffmanCodes = 0;
                     for (Map.Entry<String, Code> entry: huffmanDictionary.dictionary.entrySet()){
@@ -102,22 +100,19 @@ public class Main {
                     break;
                 case "7":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem7AlphabetA.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem7AlphabetA.txt", false);
 
                     System.out.println("\nGenerated codes from file \"problem7AlphabetA.txt\":");
                     huffmanDictionary.printCodes();
 
-                    huffmanDictionary.setupDictionaryFromFile("problem7AlphabetB.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem7AlphabetB.txt", false);
 
                     System.out.println("\nGenerated codes from file \"problem7AlphabetB.txt\":");
                     huffmanDictionary.printCodes();
                     break;
                 case "8":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem7AlphabetA.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem7AlphabetA.txt", false);
 
                     System.out.println("Generated codes from file \"problem7AlphabetA.txt\":");
                     huffmanDictionary.printCodes();
@@ -132,16 +127,14 @@ public class Main {
                     break;
                 case "9":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem4Alphabet.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem4Alphabet.txt", false);
 
                     System.out.println("Input file \"problem4Alphabet.txt\"");
                     System.out.println("Ratio using fixed-length codes to Huffman codes: " + huffmanDictionary.calculateRatio(1000));
                     break;
                 case "10":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem10Alphabet.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem10Alphabet.txt", false);
 
                     // "getInputFromFile" and "removeNonLetterSymbols"
                     String problem10TextInput = huffmanDictionary.removeNonLetterSymbols(huffmanDictionary.getInputFromFile("problem10TextInput.txt"), "");
@@ -155,29 +148,25 @@ public class Main {
                     break;
                 case "11":
                     huffmanDictionary = new Huffman();
-                    huffmanDictionary.setupDictionaryFromFile("problem11Alphabet.txt", false);
-                    huffmanDictionary.setupHuffmanCodes();
+                    huffmanDictionary.setupHuffmanCodesFromFile("problem11Alphabet.txt", false);
                     System.out.println("NOTE: check \"problem11Explanations\" in \"explanations\" folder for additional explanations and the exact source of the texts.");
 
                     System.out.println("\nOptimal entropy (English alphabet): " + huffmanDictionary.calculateTotalAlphabetEntropy(false) + "\n");
 
                     Huffman problem11InputA = new Huffman();
-                    problem11InputA.setupDictionaryFromFile("problem11InputA.txt", true);
-                    problem11InputA.setupHuffmanCodes();
+                    problem11InputA.setupHuffmanCodesFromFile("problem11InputA.txt", true);
                     System.out.println("Total entropy of \"problem11InputA.txt\": " + problem11InputA.calculateTotalAlphabetEntropy(false));
                     huffmanDictionary.displayDeviationFromOptimalEncoding(problem11InputA, "problem11InputA.txt");
                     System.out.println("Source URL: http://www.fa-kuan.muc.de/LUCEAFA.HTML#eng" + "\n");
 
                     Huffman problem11InputB = new Huffman();
-                    problem11InputB.setupDictionaryFromFile("problem11InputB.txt", true);
-                    problem11InputB.setupHuffmanCodes();
+                    problem11InputB.setupHuffmanCodesFromFile("problem11InputB.txt", true);
                     System.out.println("Total entropy of \"problem11InputB.txt\": " + problem11InputB.calculateTotalAlphabetEntropy(false));
                     huffmanDictionary.displayDeviationFromOptimalEncoding(problem11InputB, "problem11InputB.txt");
                     System.out.println("Source URL: http://shakespeare.mit.edu/measure/full.html" + "\n");
 
                     Huffman problem11InputC = new Huffman();
-                    problem11InputC.setupDictionaryFromFile("problem11InputC.txt", true);
-                    problem11InputC.setupHuffmanCodes();
+                    problem11InputC.setupHuffmanCodesFromFile("problem11InputC.txt", true);
                     System.out.println("Total entropy of \"problem11InputC.txt\": " + problem11InputC.calculateTotalAlphabetEntropy(false));
                     huffmanDictionary.displayDeviationFromOptimalEncoding(problem11InputC, "problem11InputC.txt");
                     System.out.println("Source URL: https://github.com/libgdx/libgdx/wiki/A-simple-game");
@@ -186,26 +175,22 @@ public class Main {
                     System.out.println("NOTE: check \"problem13Explanations\" in \"explanations\" folder for explanations.\n");
 
                     Huffman problem13InputA = new Huffman();
-                    problem13InputA.setupDictionaryFromFile("problem13InputA.txt", false);
-                    problem13InputA.setupHuffmanCodes();
+                    problem13InputA.setupHuffmanCodesFromFile("problem13InputA.txt", false);
                     System.out.println("If one letter has 50% frequency and the other seven are equally distributed" +
                             "\nthen the ratio of equal-length to Huffman code length is " + problem13InputA.calculateRatio(-1) + "\n");
 
                     Huffman problem13InputB = new Huffman();
-                    problem13InputB.setupDictionaryFromFile("problem13InputB.txt", false);
-                    problem13InputB.setupHuffmanCodes();
+                    problem13InputB.setupHuffmanCodesFromFile("problem13InputB.txt", false);
                     System.out.println("If four letters have 20% frequency each and the remaining four have 5%" +
                             "\nfrequency each then the ratio of equal-length to Huffman code length is " + problem13InputB.calculateRatio(-1) + "\n");
 
                     Huffman problem13InputC = new Huffman();
-                    problem13InputC.setupDictionaryFromFile("problem13InputC.txt", false);
-                    problem13InputC.setupHuffmanCodes();
+                    problem13InputC.setupHuffmanCodesFromFile("problem13InputC.txt", false);
                     System.out.println("If the frequencies are, in percentages: 50,25,12.5,6.25,3.125,1.5625,0.78125,0.78125\n" +
                             "then the ratio of equal-length to Huffman code length is " + problem13InputC.calculateRatio(-1) + "\n");
 
                     Huffman problem13InputD = new Huffman();
-                    problem13InputD.setupDictionaryFromFile("problem13InputD.txt", false);
-                    problem13InputD.setupHuffmanCodes();
+                    problem13InputD.setupHuffmanCodesFromFile("problem13InputD.txt", false);
                     System.out.println("An 8-letter alphabet with Huffman encoding more efficient than the best case above\n" +
                             "is: a=93,b=1,c=1,d=1,e=1,f=1,g=1,h=1 \nThe ratio of equal-length to Huffman code length for this" +
                             " alphabet is " + problem13InputD.calculateRatio(-1));
@@ -0,0 +1,407 @@
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compresses bytes with several Huffman codebooks instead of one, in the way bzip2 does. The input is cut into segments of
+ * <Code>SEGMENT_SIZE</Code> bytes and every segment is encoded with whichever of the K codebooks (tables) gives it the fewest
+ * bits, so data whose distribution changes from section to section gets codes that fit each section.
+ * <p>
+ * <b>Training:</b> at first every table favors a different part of the symbols, split so that each part has about the same
+ * total frequency. Then, <Code>iterations</Code> times, every segment picks the table that encodes it in the fewest bits and every
+ * table is rebuilt from the frequencies of the segments that picked it. Segments pick their tables in parallel on the fork/join
+ * pool, each task adding up the frequencies of its own segments. Every table gives a code to every used byte (its frequency is
+ * raised by 1), so any segment can be encoded with any table.
+ * <p>
+ * <b>Selectors:</b> the table of every segment is stored as its position in a move-to-front list of the tables, written in unary
+ * ("1" per position and a final "0"). Neighboring segments tend to pick the same table, which then takes one bit.
+ * <p>
+ * <b>Format of <Code>compress()</Code>:</b> the amount of bytes in 32 bits, the amount of tables in 3 bits, the symbol map and
+ * every table's code lengths as written by <Code>CodebookSerializer</Code>, the selectors, and then the codes followed by the
+ * padding marker of <Code>BitStreamWriter.toByteArray()</Code>. Codes are at most <Code>ByteHuffman.MAX_CODE_LENGTH</Code> bits
+ * long and are decoded with one <Code>DecodingTable</Code> per table.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class MultiTableHuffman{
+    public static final int SEGMENT_SIZE = 50;
+    public static final int MAX_TABLE_COUNT = 6;
+    public static final int DEFAULT_TABLE_COUNT = 6;
+    public static final int DEFAULT_ITERATIONS = 4;
+    private static final int SYMBOL_COUNT = 256;
+    private static final int TABLE_COUNT_BITS = 3;
+    private static final int PARALLEL_THRESHOLD = 1024; // Segments picked by one task
+
+    private SymbolModel[] tables;
+    private byte[] selectors; // Table of every segment
+    private int[] usedSymbols;
+
+    private MultiTableHuffman(SymbolModel[] tables, byte[] selectors, int[] usedSymbols){
+        this.tables = tables;
+        this.selectors = selectors;
+        this.usedSymbols = usedSymbols;
+    }
+
+    /**
+     * Trains tables for <Code>data</Code> and picks the table of every segment.
+     *
+     * @param data        bytes to compress
+     * @param tableCount  amount of tables, from 1 to <Code>MAX_TABLE_COUNT</Code>. Fewer are used if there are fewer segments
+     * @param iterations  amount of times the tables are refined, at least 1
+     * @return            trained tables and selectors
+     * @throws Exception  if <Code>tableCount</Code> or <Code>iterations</Code> is out of range
+     */
+
+    public static MultiTableHuffman train(byte[] data, int tableCount, int iterations) throws Exception{
+        if(tableCount < 1 || tableCount > MAX_TABLE_COUNT){
+            throw new Exception("Amount of tables must be from 1 to " + MAX_TABLE_COUNT + " but is " + tableCount);
+        }
+        if(iterations < 1){
+            throw new Exception("At least one iteration is needed but " + iterations + " were given");
+        }
+
+        int segmentCount = (data.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        tableCount = Math.max(1, Math.min(tableCount, segmentCount));
+
+        long[] frequencies = new long[SYMBOL_COUNT];
+        for(byte value: data){
+            frequencies[value & 0xFF]++;
+        }
+        int[] usedSymbols = CodebookSerializer.findUsedSymbols(frequencies);
+
+        byte[][] codeLengths = buildInitialCodeLengths(frequencies, usedSymbols, data.length, tableCount);
+        byte[] selectors = new byte[segmentCount];
+        SymbolModel[] tables = new SymbolModel[tableCount];
+
+        for(int iteration = 0; iteration < iterations; iteration++){
+            long[] tableFrequencies = segmentCount == 0 ? new long[tableCount * SYMBOL_COUNT]
+                    : Compression.FORK_JOIN_POOL.invoke(new SelectTask(data, codeLengths, selectors, 0, segmentCount));
+
+            // Rebuild every table from the segments that picked it
+            for(int table = 0; table < tableCount; table++){
+                SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+                for(int symbol: usedSymbols){
+                    model.frequencies[symbol] = tableFrequencies[table * SYMBOL_COUNT + symbol] + 1;
+                }
+                if(usedSymbols.length > 0){
+                    Huffman.setupLengthLimitedHuffmanCodes(model, ByteHuffman.MAX_CODE_LENGTH);
+                }
+                tables[table] = model;
+                codeLengths[table] = model.codeLengths;
+            }
+        }
+
+        return new MultiTableHuffman(tables, selectors, usedSymbols);
+    }
+
+    /**
+     * Compresses <Code>data</Code> with <Code>DEFAULT_TABLE_COUNT</Code> tables.
+     *
+     * @param data       bytes to compress
+     * @return           header, tables, selectors, codes and padding marker
+     * @throws Exception if the tables can not be built
+     */
+
+    public static byte[] compress(byte[] data) throws Exception{
+        return compress(data, DEFAULT_TABLE_COUNT);
+    }
+
+    /**
+     * Compresses <Code>data</Code> with up to <Code>tableCount</Code> tables.
+     *
+     * @param data        bytes to compress
+     * @param tableCount  amount of tables, from 1 to <Code>MAX_TABLE_COUNT</Code>
+     * @return            header, tables, selectors, codes and padding marker
+     * @throws Exception  if the tables can not be built
+     */
+
+    public static byte[] compress(byte[] data, int tableCount) throws Exception{
+        MultiTableHuffman multiTableHuffman = train(data, tableCount, DEFAULT_ITERATIONS);
+        BitStreamWriter writer = new BitStreamWriter(data.length / 2);
+
+        multiTableHuffman.writeHeader(writer, data.length);
+        multiTableHuffman.encode(data, writer);
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decompresses the output of <Code>compress()</Code>.
+     *
+     * @param compressed  header, tables, selectors, codes and padding marker
+     * @return            the original bytes
+     * @throws Exception  if <Code>compressed</Code> is not valid
+     */
+
+    public static byte[] decompress(byte[] compressed) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        BitStreamReader reader = new BitStreamReader(compressed);
+
+        int length = CodebookSerializer.readSymbolCount(reader);
+        int tableCount = reader.readBits(TABLE_COUNT_BITS);
+        if(tableCount < 1 || tableCount > MAX_TABLE_COUNT){
+            throw new Exception("Amount of tables " + tableCount + " is not valid");
+        }
+        int segmentCount = (int)(((long)length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+
+        int[] usedSymbols = CodebookSerializer.readSymbolMap(reader, SYMBOL_COUNT);
+        DecodingTable[] decodingTables = new DecodingTable[tableCount];
+        for(int table = 0; table < tableCount; table++){
+            SymbolModel model = new SymbolModel(SYMBOL_COUNT);
+            CodebookSerializer.readCodeLengths(reader, model.codeLengths, usedSymbols);
+            model.assignCanonicalCodes();
+            decodingTables[table] = model.buildDecodingTable();
+        }
+
+        byte[] selectors = readSelectors(reader, segmentCount, tableCount);
+        long codeStart = reader.getBitPosition();
+
+        byte[] result = new byte[length];
+        for(int segment = 0; segment < segmentCount; segment++){
+            DecodingTable decodingTable = decodingTables[selectors[segment]];
+            int end = Math.min(length, (segment + 1) * SEGMENT_SIZE);
+            for(int i = segment * SEGMENT_SIZE; i < end; i++){
+                int symbol = decodingTable.decodeSymbol(reader);
+                if(symbol == -1){
+                    CodecMetrics.INSTANCE.recordDecodeError();
+                    throw new Exception("Codes do not correspond to table " + selectors[segment] + " at bit " + reader.getBitPosition());
+                }
+                result[i] = (byte)symbol;
+            }
+        }
+
+        CodecMetrics.INSTANCE.recordDecode(start, reader.getBitPosition() - codeStart, length, length);
+        return result;
+    }
+
+    /**
+     * Writes the amount of bytes, the tables and the selectors.
+     *
+     * @param writer      output
+     * @param length      amount of bytes that will be encoded
+     * @throws Exception  if a table can not be stored
+     */
+
+    public void writeHeader(BitStreamWriter writer, int length) throws Exception{
+        CodebookSerializer.writeSymbolCount(writer, length);
+        writer.writeBits(tables.length, TABLE_COUNT_BITS);
+
+        CodebookSerializer.writeSymbolMap(writer, usedSymbols, SYMBOL_COUNT);
+        for(SymbolModel table: tables){
+            CodebookSerializer.writeCodeLengths(writer, table.codeLengths, usedSymbols);
+        }
+
+        writeSelectors(writer, selectors, tables.length);
+    }
+
+    /**
+     * Writes the code of every byte of <Code>data</Code> with the table of its segment.
+     *
+     * @param data       the bytes the tables were trained on
+     * @param writer     output
+     */
+
+    public void encode(byte[] data, BitStreamWriter writer){
+        long start = CodecMetrics.INSTANCE.startTimer();
+        long startBitLength = writer.getBitLength();
+
+        for(int segment = 0; segment < selectors.length; segment++){
+            SymbolModel table = tables[selectors[segment]];
+            long[] codeBits = table.codeBits;
+            byte[] codeLengths = table.codeLengths;
+            int end = Math.min(data.length, (segment + 1) * SEGMENT_SIZE);
+            for(int i = segment * SEGMENT_SIZE; i < end; i++){
+                int value = data[i] & 0xFF;
+                writer.writeBits(codeBits[value], codeLengths[value]);
+            }
+        }
+
+        CodecMetrics.INSTANCE.recordEncode(start, data.length, data.length, writer.getBitLength() - startBitLength);
+    }
+
+    public int getTableCount(){
+        return tables.length;
+    }
+
+    /**
+     * Returns the table picked by every segment.
+     *
+     * @return index of the table of every segment
+     */
+
+    public byte[] getSelectors(){
+        return selectors;
+    }
+
+    /**
+     * Builds the first tables. The used symbols are split into <Code>tableCount</Code> parts of about the same total frequency
+     * and every table gives short codes to its own part and the longest code to every other symbol.
+     *
+     * @param frequencies  frequency of every byte value
+     * @param usedSymbols  byte values with a frequency above 0
+     * @param length       amount of bytes
+     * @param tableCount   amount of tables
+     * @return             code lengths of every table
+     */
+
+    private static byte[][] buildInitialCodeLengths(long[] frequencies, int[] usedSymbols, long length, int tableCount){
+        byte[][] codeLengths = new byte[tableCount][SYMBOL_COUNT];
+        int next = 0;
+        long remaining = length;
+
+        for(int table = 0; table < tableCount; table++){
+            Arrays.fill(codeLengths[table], (byte)ByteHuffman.MAX_CODE_LENGTH);
+
+            long target = remaining / (tableCount - table);
+            long partFrequency = 0;
+            while(next < usedSymbols.length && (partFrequency < target || table == tableCount - 1)){
+                codeLengths[table][usedSymbols[next]] = 1;
+                partFrequency += frequencies[usedSymbols[next]];
+                next++;
+            }
+            remaining -= partFrequency;
+        }
+
+        return codeLengths;
+    }
+
+    /**
+     * Writes the selectors as positions in a move-to-front list of tables, in unary.
+     *
+     * @param writer      output
+     * @param selectors   table of every segment
+     * @param tableCount  amount of tables
+     */
+
+    private static void writeSelectors(BitStreamWriter writer, byte[] selectors, int tableCount){
+        byte[] order = new byte[tableCount];
+        for(int table = 0; table < tableCount; table++){
+            order[table] = (byte)table;
+        }
+
+        for(byte selector: selectors){
+            int position = 0;
+            while(order[position] != selector){
+                position++;
+            }
+            // Move the table to the front of the list
+            System.arraycopy(order, 0, order, 1, position);
+            order[0] = selector;
+
+            writer.writeBits((1L << (position + 1)) - 2, position + 1); // "position" "1"s followed by a "0"
+        }
+    }
+
+    /**
+     * Reads selectors written by <Code>writeSelectors()</Code>.
+     *
+     * @param reader        input
+     * @param segmentCount  amount of segments
+     * @param tableCount    amount of tables
+     * @return              table of every segment
+     * @throws Exception    if a selector is not valid
+     */
+
+    private static byte[] readSelectors(BitStreamReader reader, int segmentCount, int tableCount) throws Exception{
+        byte[] order = new byte[tableCount];
+        for(int table = 0; table < tableCount; table++){
+            order[table] = (byte)table;
+        }
+
+        byte[] selectors = new byte[segmentCount];
+        for(int segment = 0; segment < segmentCount; segment++){
+            int position = 0;
+            while(reader.readBits(1) == 1){
+                position++;
+                if(position >= tableCount){
+                    throw new Exception("Selector of segment " + segment + " is not valid");
+                }
+            }
+
+            byte selector = order[position];
+            System.arraycopy(order, 0, order, 1, position);
+            order[0] = selector;
+            selectors[segment] = selector;
+        }
+        if(reader.getRemainingBits() < 0){
+            throw new Exception("Input ends inside the selectors");
+        }
+
+        return selectors;
+    }
+
+    /**
+     * Picks the cheapest table for a range of segments by splitting it in half until at most <Code>PARALLEL_THRESHOLD</Code>
+     * segments are left. The result is the frequency of every symbol in the segments that picked every table, table after table.
+     */
+
+    private static class SelectTask extends RecursiveTask<long[]>{
+        private byte[] data;
+        private byte[][] codeLengths;
+        private byte[] selectors;
+        private int start;
+        private int end;
+
+        public SelectTask(byte[] data, byte[][] codeLengths, byte[] selectors, int start, int end){
+            this.data = data;
+            this.codeLengths = codeLengths;
+            this.selectors = selectors;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected long[] compute(){
+            if(end - start > PARALLEL_THRESHOLD){
+                int middle = (start + end) >>> 1;
+                SelectTask secondHalf = new SelectTask(data, codeLengths, selectors, middle, end);
+                secondHalf.fork();
+                long[] frequencies = new SelectTask(data, codeLengths, selectors, start, middle).compute();
+                long[] secondFrequencies = secondHalf.join();
+                for(int i = 0; i < frequencies.length; i++){
+                    frequencies[i] += secondFrequencies[i];
+                }
+                return frequencies;
+            }
+
+            long[] frequencies = new long[codeLengths.length * SYMBOL_COUNT];
+            for(int segment = start; segment < end; segment++){
+                int segmentStart = segment * SEGMENT_SIZE;
+                int segmentEnd = Math.min(data.length, segmentStart + SEGMENT_SIZE);
+
+                int bestTable = 0;
+                long bestCost = Long.MAX_VALUE;
+                for(int table = 0; table < codeLengths.length; table++){
+                    byte[] lengths = codeLengths[table];
+                    long cost = 0;
+                    for(int i = segmentStart; i < segmentEnd; i++){
+                        cost += lengths[data[i] & 0xFF];
+                    }
+                    if(cost < bestCost){
+                        bestCost = cost;
+                        bestTable = table;
+                    }
+                }
+
+                selectors[segment] = (byte)bestTable;
+                int offset = bestTable * SYMBOL_COUNT;
+                for(int i = segmentStart; i < segmentEnd; i++){
+                    frequencies[offset + (data[i] & 0xFF)]++;
+                }
+            }
+            return frequencies;
+        }
+    }
+}
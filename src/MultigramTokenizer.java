@@ -0,0 +1,213 @@
+import java.util.Arrays;
+
+/**
+ * Cuts text into keys of a dictionary that can hold multigrams such as "th" next to single letters. The keys are stored in a
+ * trie, so all keys that start at a position of the text are found in one walk of at most the length of the longest key.
+ * <p>
+ * Two ways of cutting are supported. <Code>tokenize()</Code> takes the longest key at every position. <Code>tokenizeOptimally()</Code>
+ * chooses the cut with the smallest total cost, for example the sum of code lengths, by dynamic programming from the end of the text.
+ * Taking the longest key is not always cheapest: with the keys "t", "th", "he" and "e" the text "the" can be cut as "th"+"e" or "t"+"he".
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class MultigramTokenizer{
+    private static final int NO_SYMBOL = -1;
+
+    private String[] keys;
+    private long[] costs;
+    private int[] characterIndices; // Dense index of every "char" used by a key, -1 for other characters
+    private int characterCount;
+    private int[] transitions; // Child of node n for the character with index c is transitions[n * characterCount + c], 0 for none
+    private int[] nodeSymbols; // Symbol whose key ends at a node, NO_SYMBOL if none
+    private int nodeCount = 1; // Node 0 is the root
+
+    /**
+     * MultigramTokenizer constructor which builds the trie of the keys.
+     *
+     * @param keys       key of every symbol
+     * @param costs      cost of every symbol for <Code>tokenizeOptimally()</Code>, such as its code length. Can be <Code>null</Code> if only <Code>tokenize()</Code> is used
+     * @throws Exception if a key is empty or appears twice
+     */
+
+    public MultigramTokenizer(String[] keys, long[] costs) throws Exception{
+        this.keys = keys;
+        this.costs = costs;
+
+        // Number the characters of the keys so every node needs one entry per character that is used
+        int maxCharacter = 0;
+        int totalLength = 0;
+        for(String key: keys){
+            if(key == null || key.length() == 0){
+                throw new Exception("A key of a tokenizer can not be empty");
+            }
+            for(int i = 0; i < key.length(); i++){
+                maxCharacter = Math.max(maxCharacter, key.charAt(i));
+            }
+            totalLength += key.length();
+        }
+        characterIndices = new int[maxCharacter + 1];
+        Arrays.fill(characterIndices, -1);
+        for(String key: keys){
+            for(int i = 0; i < key.length(); i++){
+                if(characterIndices[key.charAt(i)] == -1){
+                    characterIndices[key.charAt(i)] = characterCount++;
+                }
+            }
+        }
+
+        transitions = new int[(totalLength + 1) * characterCount];
+        nodeSymbols = new int[totalLength + 1];
+        Arrays.fill(nodeSymbols, NO_SYMBOL);
+
+        for(int symbol = 0; symbol < keys.length; symbol++){
+            int node = 0;
+            for(int i = 0; i < keys[symbol].length(); i++){
+                int transition = node * characterCount + characterIndices[keys[symbol].charAt(i)];
+                if(transitions[transition] == 0){
+                    transitions[transition] = nodeCount++;
+                }
+                node = transitions[transition];
+            }
+            if(nodeSymbols[node] != NO_SYMBOL){
+                throw new Exception("Key \"" + keys[symbol] + "\" appears more than once");
+            }
+            nodeSymbols[node] = symbol;
+        }
+    }
+
+    /**
+     * Finds the longest key that starts at <Code>position</Code>.
+     *
+     * @param input     text
+     * @param position  index of the first character
+     * @return          symbol of the longest key, or -1 if no key starts there
+     */
+
+    public int matchLongest(CharSequence input, int position){
+        int node = 0;
+        int symbol = NO_SYMBOL;
+
+        for(int i = position; i < input.length(); i++){
+            node = getChild(node, input.charAt(i));
+            if(node == 0){
+                break;
+            }
+            if(nodeSymbols[node] != NO_SYMBOL){
+                symbol = nodeSymbols[node];
+            }
+        }
+
+        return symbol;
+    }
+
+    /**
+     * Cuts <Code>input</Code> by taking the longest key at every position.
+     *
+     * @param input      text
+     * @return           symbol of every key in order
+     * @throws Exception if no key starts at some position
+     */
+
+    public int[] tokenize(CharSequence input) throws Exception{
+        int[] symbols = new int[input.length()];
+        int symbolCount = 0;
+
+        for(int position = 0; position < input.length(); position += keys[symbols[symbolCount - 1]].length()){
+            int symbol = matchLongest(input, position);
+            if(symbol == NO_SYMBOL){
+                throw new Exception("No key matches the input at character " + position);
+            }
+            symbols[symbolCount++] = symbol;
+        }
+
+        return Arrays.copyOf(symbols, symbolCount);
+    }
+
+    /**
+     * Cuts <Code>input</Code> into the keys with the smallest total cost. Going from the end of the text to its start, the cheapest
+     * way to cut the rest of the text from every position is the cheapest of every key that starts there plus the cheapest way to cut
+     * the text after that key. Among equally cheap ways the longer key is taken.
+     *
+     * @param input      text
+     * @return           symbol of every key in order
+     * @throws Exception if no costs were given or the text can not be cut into keys
+     */
+
+    public int[] tokenizeOptimally(CharSequence input) throws Exception{
+        if(costs == null){
+            throw new Exception("Costs are needed to tokenize optimally");
+        }
+
+        int length = input.length();
+        long[] bestCosts = new long[length + 1]; // Cheapest cost of the text from a position to the end, Long.MAX_VALUE if it can not be cut
+        int[] bestSymbols = new int[length];
+
+        for(int position = length - 1; position >= 0; position--){
+            bestCosts[position] = Long.MAX_VALUE;
+            bestSymbols[position] = NO_SYMBOL;
+
+            int node = 0;
+            for(int i = position; i < length; i++){
+                node = getChild(node, input.charAt(i));
+                if(node == 0){
+                    break;
+                }
+                int symbol = nodeSymbols[node];
+                if(symbol != NO_SYMBOL && bestCosts[i + 1] != Long.MAX_VALUE && costs[symbol] + bestCosts[i + 1] <= bestCosts[position]){
+                    bestCosts[position] = costs[symbol] + bestCosts[i + 1];
+                    bestSymbols[position] = symbol;
+                }
+            }
+        }
+
+        int[] symbols = new int[length];
+        int symbolCount = 0;
+        for(int position = 0; position < length; position += keys[bestSymbols[position]].length()){
+            if(bestSymbols[position] == NO_SYMBOL){
+                throw new Exception("No keys match the input from character " + position);
+            }
+            symbols[symbolCount++] = bestSymbols[position];
+        }
+
+        return Arrays.copyOf(symbols, symbolCount);
+    }
+
+    /**
+     * Returns the key of a symbol.
+     *
+     * @param symbol  symbol from 0 to the amount of keys - 1
+     * @return        its key
+     */
+
+    public String getKey(int symbol){
+        return keys[symbol];
+    }
+
+    /**
+     * Follows the edge of <Code>character</Code> from <Code>node</Code>.
+     *
+     * @param node       trie node
+     * @param character  next character of the text
+     * @return           the child node, or 0 if no key continues with <Code>character</Code>
+     */
+
+    private int getChild(int node, char character){
+        if(character >= characterIndices.length || characterIndices[character] == -1){
+            return 0;
+        }
+        return transitions[node * characterCount + characterIndices[character]];
+    }
+}
@@ -0,0 +1,183 @@
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Compresses data into the container format of <Code>HuffmanContainerWriter</Code> using every core. The bytes are counted in
+ * parallel by <Code>FrequencyCounter</Code> to build one codebook shared by all blocks, then the blocks are encoded at the same
+ * time on the fork/join pool and written in order as soon as every block before them is done.
+ * <p>
+ * Only a limited amount of blocks are encoded ahead of the writer, so memory use does not grow with the size of the input.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>ParallelCompressor.compressFile("input.bin", "output.hufc", ParallelCompressor.DEFAULT_BLOCK_SIZE);</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class ParallelCompressor{
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 19; // 512 KB
+    private static final int MAX_MAPPED_SIZE = 1 << 30; // A single mapping can not be larger than 2 GB so files are mapped 1 GB at a time
+    private static final int BLOCKS_IN_FLIGHT_PER_THREAD = 4;
+
+    private ByteHuffman byteHuffman;
+    private int blockSize;
+
+    /**
+     * ParallelCompressor constructor which encodes with the given codes.
+     *
+     * @param byteHuffman  codes shared by all blocks
+     * @param blockSize    amount of uncompressed bytes in every block but the last
+     */
+
+    public ParallelCompressor(ByteHuffman byteHuffman, int blockSize){
+        this.byteHuffman = byteHuffman;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Compresses a file of any size into a container. The file is memory-mapped 1 GB at a time.
+     *
+     * @param inputFileName   file to compress
+     * @param outputFileName  file that receives the container
+     * @param blockSize       amount of uncompressed bytes in every block but the last
+     * @throws Exception      if a file can not be read or written
+     */
+
+    public static void compressFile(String inputFileName, String outputFileName, int blockSize) throws Exception{
+        ByteHuffman byteHuffman = ByteHuffman.fromFrequencies(FrequencyCounter.countFile(inputFileName).frequencies);
+        ParallelCompressor compressor = new ParallelCompressor(byteHuffman, blockSize);
+
+        RandomAccessFile inputFile = new RandomAccessFile(inputFileName, "r");
+        OutputStream outputStream = new FileOutputStream(outputFileName);
+        try{
+            FileChannel channel = inputFile.getChannel();
+            HuffmanContainerWriter writer = new HuffmanContainerWriter(outputStream, byteHuffman, blockSize);
+
+            // Every mapped part holds a whole amount of blocks so that only the last block of the file is shorter
+            long partSize = Math.max(1, MAX_MAPPED_SIZE / blockSize) * (long)blockSize;
+            for(long position = 0; position < channel.size(); position += partSize){
+                compressor.writeBlocks(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(partSize, channel.size() - position)), writer);
+            }
+            writer.finish();
+        }finally{
+            outputStream.close();
+            inputFile.close();
+        }
+    }
+
+    /**
+     * Compresses bytes in memory into a container.
+     *
+     * @param data       bytes to compress
+     * @param blockSize  amount of uncompressed bytes in every block but the last
+     * @return           the container
+     * @throws Exception if the codes can not be built
+     */
+
+    public static byte[] compress(byte[] data, int blockSize) throws Exception{
+        ByteBuffer input = ByteBuffer.wrap(data);
+        ByteHuffman byteHuffman = ByteHuffman.fromData(input);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length / 2 + HuffmanContainerWriter.HEADER_SIZE);
+
+        HuffmanContainerWriter writer = new HuffmanContainerWriter(outputStream, byteHuffman, blockSize);
+        new ParallelCompressor(byteHuffman, blockSize).writeBlocks(input, writer);
+        writer.finish();
+
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Cuts <Code>data</Code> into blocks, encodes them on the fork/join pool and writes them to <Code>writer</Code> in order.
+     *
+     * @param data       bytes from the position to the limit of the buffer. The position is not changed
+     * @param writer     container that receives the blocks. Must use the same codes and block size as this compressor
+     * @throws Exception if a byte does not have a code or writing fails
+     */
+
+    public void writeBlocks(ByteBuffer data, HuffmanContainerWriter writer) throws Exception{
+        int maxBlocksInFlight = BLOCKS_IN_FLIGHT_PER_THREAD * Compression.FORK_JOIN_POOL.getParallelism();
+        ArrayDeque<EncodeTask> tasks = new ArrayDeque<EncodeTask>(); // Blocks being encoded, in the order in which they are written
+
+        for(int position = data.position(); position < data.limit(); position += blockSize){
+            ByteBuffer block = data.duplicate();
+            block.position(position);
+            block.limit((int)Math.min((long)position + blockSize, data.limit()));
+
+            if(tasks.size() == maxBlocksInFlight){
+                writeBlock(tasks.removeFirst(), writer); // Wait for the oldest block before starting more
+            }
+            EncodeTask task = new EncodeTask(byteHuffman, block);
+            Compression.FORK_JOIN_POOL.execute(task);
+            tasks.addLast(task);
+        }
+
+        while(!tasks.isEmpty()){
+            writeBlock(tasks.removeFirst(), writer);
+        }
+    }
+
+    /**
+     * Waits for a block to be encoded and writes it.
+     *
+     * @param task       task that encodes the block
+     * @param writer     container that receives the block
+     * @throws Exception if encoding or writing failed
+     */
+
+    private static void writeBlock(EncodeTask task, HuffmanContainerWriter writer) throws Exception{
+        task.join();
+        if(task.exception != null){
+            throw task.exception;
+        }
+        writer.writeEncodedBlock(task.encoded, task.uncompressedLength, task.checksum);
+    }
+
+    /**
+     * Encodes one block and computes its checksum.
+     */
+
+    private static class EncodeTask extends RecursiveTask<Void>{
+        private ByteHuffman byteHuffman;
+        private ByteBuffer block;
+        private byte[] encoded;
+        private int uncompressedLength;
+        private int checksum;
+        private Exception exception; // Exceptions are handed to the writing thread instead of being thrown on the pool
+
+        public EncodeTask(ByteHuffman byteHuffman, ByteBuffer block){
+            this.byteHuffman = byteHuffman;
+            this.block = block;
+        }
+
+        @Override
+        protected Void compute(){
+            try{
+                uncompressedLength = block.remaining();
+                encoded = HuffmanContainerWriter.encodeBlock(byteHuffman, block);
+                checksum = HuffmanContainerWriter.calculateChecksum(block);
+            }catch (Exception e){
+                exception = e;
+            }
+            block = null; // The block is not needed after encoding
+            return null;
+        }
+    }
+}
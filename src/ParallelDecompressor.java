@@ -0,0 +1,191 @@
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Decodes the blocks of a container on every core. A Huffman stream has no boundaries that a reader could find between codes,
+ * so the container's block index is used as the set of points where decoding can start: every block begins on a whole byte
+ * at a known offset and decodes to a known amount of bytes at a known position of the output.
+ * <p>
+ * Blocks are decoded straight into their own slice of one output array, or written straight to their own position of the
+ * output file, so the outputs of the threads never have to be joined by copying.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>ParallelDecompressor.decompressFile("output.hufc", "decoded.bin");</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class ParallelDecompressor{
+    private HuffmanContainerReader reader;
+
+    /**
+     * ParallelDecompressor constructor which decodes the blocks of an open container.
+     *
+     * @param reader  container to decode. It is not closed by the decompressor
+     */
+
+    public ParallelDecompressor(HuffmanContainerReader reader){
+        this.reader = reader;
+    }
+
+    /**
+     * Decompresses a whole container into memory.
+     *
+     * @param fileName   the container file name
+     * @return           the uncompressed bytes
+     * @throws Exception if the file can not be read, is larger than 2 GB uncompressed or a block is not valid
+     */
+
+    public static byte[] decompress(String fileName) throws Exception{
+        HuffmanContainerReader reader = new HuffmanContainerReader(fileName);
+        try{
+            return new ParallelDecompressor(reader).decompress();
+        }finally{
+            reader.close();
+        }
+    }
+
+    /**
+     * Decompresses a whole container into a file of any size. Every block is written at its own position of the file by the
+     * thread that decoded it.
+     *
+     * @param inputFileName   the container file name
+     * @param outputFileName  file that receives the uncompressed bytes
+     * @throws Exception      if a file can not be read or written or a block is not valid
+     */
+
+    public static void decompressFile(String inputFileName, String outputFileName) throws Exception{
+        HuffmanContainerReader reader = new HuffmanContainerReader(inputFileName);
+        RandomAccessFile outputFile = null;
+        try{
+            outputFile = new RandomAccessFile(outputFileName, "rw");
+            outputFile.setLength(reader.getUncompressedLength());
+            new ParallelDecompressor(reader).decompress(outputFile.getChannel());
+        }finally{
+            if(outputFile != null){
+                outputFile.close();
+            }
+            reader.close();
+        }
+    }
+
+    /**
+     * Decodes every block into one array, each block into its own slice.
+     *
+     * @return           the uncompressed bytes
+     * @throws Exception if the container is larger than 2 GB uncompressed or a block is not valid
+     */
+
+    public byte[] decompress() throws Exception{
+        if(reader.getUncompressedLength() > Integer.MAX_VALUE - 8){
+            throw new Exception("Container of " + reader.getUncompressedLength() + " bytes does not fit in an array, use decompressFile()");
+        }
+
+        byte[] output = new byte[(int)reader.getUncompressedLength()];
+        run(new DecodeTask(reader, 0, reader.getBlockCount(), output, null));
+        return output;
+    }
+
+    /**
+     * Decodes every block and writes it at its uncompressed offset of <Code>channel</Code>.
+     *
+     * @param channel    file that receives the uncompressed bytes
+     * @throws Exception if a block is not valid or writing fails
+     */
+
+    public void decompress(FileChannel channel) throws Exception{
+        run(new DecodeTask(reader, 0, reader.getBlockCount(), null, channel));
+    }
+
+    /**
+     * Runs a task on the fork/join pool and throws the first exception of any block.
+     *
+     * @param task       task over all blocks
+     * @throws Exception if decoding a block failed
+     */
+
+    private static void run(DecodeTask task) throws Exception{
+        if(task.start == task.end){
+            return;
+        }
+
+        Exception exception = Compression.FORK_JOIN_POOL.invoke(task);
+        if(exception != null){
+            throw exception;
+        }
+    }
+
+    /**
+     * Decodes a range of blocks by splitting it in half until one block is left. The result is the first exception met, or <Code>null</Code>.
+     */
+
+    private static class DecodeTask extends RecursiveTask<Exception>{
+        private HuffmanContainerReader reader;
+        private int start;
+        private int end;
+        private byte[] output; // Array of all uncompressed bytes, or null when writing to "channel"
+        private FileChannel channel;
+
+        public DecodeTask(HuffmanContainerReader reader, int start, int end, byte[] output, FileChannel channel){
+            this.reader = reader;
+            this.start = start;
+            this.end = end;
+            this.output = output;
+            this.channel = channel;
+        }
+
+        @Override
+        protected Exception compute(){
+            if(end - start == 1){
+                try{
+                    decodeBlock();
+                    return null;
+                }catch (Exception e){
+                    return e;
+                }
+            }
+
+            int middle = (start + end) >>> 1;
+            DecodeTask secondHalf = new DecodeTask(reader, middle, end, output, channel);
+            secondHalf.fork();
+            Exception exception = new DecodeTask(reader, start, middle, output, channel).compute();
+            Exception secondException = secondHalf.join();
+            return exception != null ? exception : secondException;
+        }
+
+        /**
+         * Decodes block <Code>start</Code> into its slice of <Code>output</Code> or its position of <Code>channel</Code>.
+         *
+         * @throws Exception if the block is not valid or writing fails
+         */
+
+        private void decodeBlock() throws Exception{
+            ContainerBlock block = reader.getBlock(start);
+
+            if(output != null){
+                reader.readBlock(start, output, (int)block.uncompressedOffset);
+                return;
+            }
+
+            ByteBuffer decoded = ByteBuffer.wrap(reader.readBlock(start));
+            long position = block.uncompressedOffset;
+            while(decoded.hasRemaining()){
+                position += channel.write(decoded, position); // Positional writes do not move the channel so threads do not interfere
+            }
+        }
+    }
+}
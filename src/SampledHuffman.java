@@ -0,0 +1,247 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+/**
+ * Compresses the letters of a large raw-text file with one read of the file instead of two. Normally every letter is counted
+ * with <Code>setupDictionaryFromFile(fileName, true)</Code> before encoding can start, which reads the whole file once for the
+ * model and again for the codes. Here the model is built from samples spread evenly over the file (a fraction of the file or
+ * a number of samples), and the file is then read once while its letters are encoded.
+ * <p>
+ * <b>Unseen letters:</b> a letter that is not in any sample still needs a code, as it can appear in the rest of the file. The
+ * alphabet "a" to "z" is closed, so no escape code is needed: every letter gets its sampled frequency plus
+ * <Code>SMOOTHING</Code> (Laplace smoothing), which gives an unseen letter a long code instead of none.
+ * <p>
+ * While encoding, the exact frequency of every letter is counted as well. At the end the result tells how many bits the
+ * Huffman codes of the exact frequencies would have taken, and how much ratio the sampled model lost.
+ * <p>
+ * <b>Format of the output:</b> the code length of every letter "a" to "z" in one byte each, followed by the codes in the format
+ * of <Code>BitStreamWriter.toByteArray()</Code>. The codes are canonical, so the code lengths are the whole codebook.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class SampledHuffman{
+    public static final int DEFAULT_SAMPLE_SIZE = 1 << 16; // 64 KB
+    public static final double DEFAULT_SAMPLE_FRACTION = 0.01;
+    public static final long SMOOTHING = 1;
+    public static final int LETTER_COUNT = 26;
+
+    /**
+     * Result of <Code>compressFile()</Code>.
+     */
+
+    public static class Result{
+        public Huffman model;
+        public long[] frequencies = new long[LETTER_COUNT]; // Exact frequency of every letter "a" to "z"
+        public long letterCount;
+        public long encodedBitLength; // Bits of the codes with the sampled model
+        public long exactBitLength;   // Bits of the codes with Huffman codes of the exact frequencies
+
+        /**
+         * Returns the ratio of equal-length to Huffman code length lost because the model was built from samples, in the same
+         * way as <Code>Huffman.calculateRatioLostToCodeLengthLimit()</Code>.
+         *
+         * @return ratio with exact frequencies minus ratio with the sampled model
+         */
+
+        public double getRatioLost(){
+            if(letterCount == 0){
+                return 0;
+            }
+            double fixedLengthCodeSize = Math.ceil(Math.log(LETTER_COUNT) / Math.log(2));
+            double totalLengthWithFixedLengthCodes = letterCount * fixedLengthCodeSize;
+            return (totalLengthWithFixedLengthCodes / exactBitLength) - (totalLengthWithFixedLengthCodes / encodedBitLength);
+        }
+    }
+
+    /**
+     * Builds canonical Huffman codes for the letters of a file from samples that make up about <Code>sampleFraction</Code> of it.
+     *
+     * @param fileName        the file name
+     * @param sampleFraction  part of the file to sample, from 0 to 1
+     * @param sampleSize      bytes per sample
+     * @return                Huffman object with a code for every letter "a" to "z"
+     * @throws Exception      if the file can not be read
+     */
+
+    public static Huffman buildModel(String fileName, double sampleFraction, int sampleSize) throws Exception{
+        long size = new File(fileName).length();
+        long sampleCount = (long)Math.ceil(size * sampleFraction / sampleSize);
+        return buildModel(fileName, (int)Math.max(1, Math.min(Integer.MAX_VALUE, sampleCount)), sampleSize);
+    }
+
+    /**
+     * Builds canonical Huffman codes for the letters of a file from <Code>sampleCount</Code> samples spread evenly over it.
+     *
+     * @param fileName     the file name
+     * @param sampleCount  amount of samples
+     * @param sampleSize   bytes per sample
+     * @return             Huffman object with a code for every letter "a" to "z"
+     * @throws Exception   if the file can not be read
+     */
+
+    public static Huffman buildModel(String fileName, int sampleCount, int sampleSize) throws Exception{
+        FrequencyCounter sample = FrequencyCounter.sampleFile(fileName, sampleCount, sampleSize);
+
+        // Upper case letters are counted as lower case ones, like in "setupDictionaryFromFile()"
+        StringBuilder alphabet = new StringBuilder();
+        for(char letter = 'a'; letter <= 'z'; letter++){
+            long frequency = sample.frequencies[letter] + sample.frequencies[Character.toUpperCase(letter)] + SMOOTHING;
+            if(letter > 'a'){
+                alphabet.append(',');
+            }
+            alphabet.append(letter).append('=').append(frequency);
+        }
+
+        Huffman model = new Huffman();
+        model.setupDictionaryFromString(alphabet.toString());
+        model.setupCanonicalHuffmanCodes();
+        return model;
+    }
+
+    /**
+     * Builds a model from about <Code>DEFAULT_SAMPLE_FRACTION</Code> of the input and compresses it with one read.
+     *
+     * @param inputFileName   raw text to compress
+     * @param outputFileName  file that receives the codebook and the codes
+     * @return                the model, exact frequencies and bit lengths
+     * @throws Exception      if a file can not be read or written
+     */
+
+    public static Result compressFile(String inputFileName, String outputFileName) throws Exception{
+        return compressFile(buildModel(inputFileName, DEFAULT_SAMPLE_FRACTION, DEFAULT_SAMPLE_SIZE), inputFileName, outputFileName);
+    }
+
+    /**
+     * Encodes every letter of the input with the codes of <Code>model</Code> while counting the exact frequency of every letter.
+     * The input is read once.
+     *
+     * @param model           codes from <Code>buildModel()</Code>
+     * @param inputFileName   raw text to compress
+     * @param outputFileName  file that receives the codebook and the codes
+     * @return                the model, exact frequencies and bit lengths
+     * @throws Exception      if a file can not be read or written
+     */
+
+    public static Result compressFile(Huffman model, String inputFileName, String outputFileName) throws Exception{
+        long start = CodecMetrics.INSTANCE.startTimer();
+        Result result = new Result();
+        result.model = model;
+
+        EncodingTable encodingTable = new EncodingTable(model.dictionary);
+        InputStream input = new FileInputStream(inputFileName);
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(outputFileName), BitStreamReader.STREAM_BUFFER_SIZE);
+        long byteCount = 0;
+
+        try{
+            output.write(model.getCodeLengths());
+            BitStreamWriter writer = new BitStreamWriter(output);
+            byte[] buffer = new byte[BitStreamReader.STREAM_BUFFER_SIZE];
+
+            int length;
+            while((length = input.read(buffer)) != -1){
+                byteCount += length;
+                for(int i = 0; i < length; i++){
+                    // "| 0x20" makes an upper case letter lower case. No byte other than "a-z" and "A-Z" gives a value from 0 to 25
+                    int letter = (buffer[i] | 0x20) - 'a';
+                    if(letter >= 0 && letter < LETTER_COUNT){
+                        result.frequencies[letter]++;
+                        encodingTable.writeCode(writer, (char)('a' + letter));
+                    }
+                }
+            }
+
+            result.encodedBitLength = writer.getBitLength();
+            writer.finish();
+        }finally{
+            input.close();
+            output.close();
+        }
+
+        for(long frequency: result.frequencies){
+            result.letterCount += frequency;
+        }
+        result.exactBitLength = calculateExactBitLength(result.frequencies);
+
+        CodecMetrics.INSTANCE.recordEncode(start, byteCount, result.letterCount, result.encodedBitLength);
+        return result;
+    }
+
+    /**
+     * Decompresses the output of <Code>compressFile()</Code> into a file. The codes are decoded by a <Code>StreamingDecoder</Code>
+     * through fixed-size buffers, so files of any size can be decompressed.
+     *
+     * @param inputFileName   the compressed file
+     * @param outputFileName  file that receives the letters of the original text, made lower case
+     * @return                amount of letters decoded
+     * @throws Exception      if a file can not be read or written or the compressed file is not valid
+     */
+
+    public static long decompressFile(String inputFileName, String outputFileName) throws Exception{
+        InputStream input = new FileInputStream(inputFileName);
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(outputFileName), BitStreamReader.STREAM_BUFFER_SIZE);
+
+        try{
+            byte[] codeLengths = new byte[LETTER_COUNT];
+            int read = 0;
+            while(read < LETTER_COUNT){
+                int length = input.read(codeLengths, read, LETTER_COUNT - read);
+                if(length == -1){
+                    throw new Exception("File " + inputFileName + " is too short to hold a codebook");
+                }
+                read += length;
+            }
+
+            ArrayList<String> alphabet = new ArrayList<String>();
+            for(char letter = 'a'; letter <= 'z'; letter++){
+                alphabet.add(String.valueOf(letter));
+            }
+
+            Huffman model = new Huffman();
+            model.setupDictionaryFromCodeLengths(alphabet, codeLengths);
+            long letterCount = new StreamingDecoder(model).decode(input, output);
+            output.flush();
+            return letterCount;
+        }finally{
+            input.close();
+            output.close();
+        }
+    }
+
+    /**
+     * Finds how many bits the letters would take with Huffman codes of their exact frequencies, which a model built from the
+     * whole file in a first pass would give.
+     *
+     * @param frequencies  exact frequency of every letter
+     * @return             sum of frequency * code length with the exact Huffman codes
+     * @throws Exception   if the codes can not be built
+     */
+
+    private static long calculateExactBitLength(long[] frequencies) throws Exception{
+        SymbolModel model = new SymbolModel(frequencies.length);
+        System.arraycopy(frequencies, 0, model.frequencies, 0, frequencies.length);
+        if(model.calculateSumOfFrequencies() == 0){
+            return 0;
+        }
+
+        Huffman.setupHuffmanCodes(model);
+        return model.calculateEncodedBitLength();
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes packed codes from an <Code>InputStream</Code> or a channel straight to an <Code>OutputStream</Code> or a channel.
+ * Codes are read and text is written through fixed-size buffers, so memory use does not depend on the size of the input.
+ * <p>
+ * The input is the output of <Code>StreamingEncoder</Code>: packed bits followed by the padding marker (see <Code>BitStreamWriter</Code>).
+ * Symbols are found with a <Code>DecodingTable</Code> built from the same <Code>dictionary</Code> that was used to encode.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class StreamingDecoder{
+    private String[] keys;
+    private DecodingTable decodingTable;
+    private Charset charset;
+
+    /**
+     * StreamingDecoder constructor which writes text as UTF-8.
+     *
+     * @param compression  object with a <Code>dictionary</Code> that already has its codes built
+     * @throws Exception   if codes in <Code>dictionary</Code> are missing or are not prefix free
+     */
+
+    public StreamingDecoder(Compression compression) throws Exception{
+        this(compression, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * StreamingDecoder constructor.
+     *
+     * @param compression  object with a <Code>dictionary</Code> that already has its codes built
+     * @param charset      character set of the decoded text
+     * @throws Exception   if codes in <Code>dictionary</Code> are missing or are not prefix free
+     */
+
+    public StreamingDecoder(Compression compression, Charset charset) throws Exception{
+        this.keys = new String[compression.dictionary.size()];
+        this.decodingTable = compression.buildDecodingTable(keys);
+        this.charset = charset;
+    }
+
+    /**
+     * Decodes all codes from <Code>input</Code> into <Code>output</Code>. Neither stream is closed.
+     *
+     * @param input      packed codes followed by the padding marker
+     * @param output     stream that receives the decoded text
+     * @return           amount of symbols decoded
+     * @throws Exception if the codes do not correspond to <Code>dictionary</Code> or reading or writing fails
+     */
+
+    public long decode(InputStream input, OutputStream output) throws Exception{
+        BitStreamReader reader = new BitStreamReader(input);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, charset));
+        long symbolCount = 0;
+
+        while(reader.getRemainingBits() > 0){
+            int decodedSymbol = decodingTable.decodeSymbol(reader);
+            if(decodedSymbol == -1){
+                break;
+            }
+            writer.write(keys[decodedSymbol]);
+            symbolCount++;
+        }
+
+        if(reader.getStreamException() != null){
+            throw reader.getStreamException();
+        }
+        if(reader.getRemainingBits() > 0){
+            throw new Exception("Codes do not correspond to dictionary at bit " + reader.getBitPosition());
+        }
+
+        writer.flush();
+        return symbolCount;
+    }
+
+    /**
+     * Decodes all codes from <Code>input</Code> into <Code>output</Code>. Neither channel is closed.
+     *
+     * @param input      packed codes followed by the padding marker
+     * @param output     channel that receives the decoded text
+     * @return           amount of symbols decoded
+     * @throws Exception if the codes do not correspond to <Code>dictionary</Code> or reading or writing fails
+     */
+
+    public long decode(ReadableByteChannel input, WritableByteChannel output) throws Exception{
+        return decode(Channels.newInputStream(input), Channels.newOutputStream(output));
+    }
+}
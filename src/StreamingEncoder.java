@@ -0,0 +1,111 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes text from an <Code>InputStream</Code> or a channel straight to an <Code>OutputStream</Code> or a channel. Text is read
+ * and codes are written through fixed-size buffers, so memory use does not depend on the size of the input.
+ * <p>
+ * Like <Code>Compression.encodeInput()</Code> every character that is not a letter is skipped and letters are made lower case.
+ * The output is packed bits followed by the padding marker (see <Code>BitStreamWriter</Code>) and is decoded by <Code>StreamingDecoder</Code>.
+ *
+ * <p><b>Example:</b>
+ * <p><Code>new StreamingEncoder(huffmanDictionary).encode(new FileInputStream("input.txt"), new FileOutputStream("output.bin"));</Code>
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class StreamingEncoder{
+    private static final int CHARACTER_BUFFER_SIZE = 8192;
+
+    private EncodingTable encodingTable;
+    private Charset charset;
+
+    /**
+     * StreamingEncoder constructor which reads text as UTF-8.
+     *
+     * @param compression  object with a <Code>dictionary</Code> that already has its codes built
+     */
+
+    public StreamingEncoder(Compression compression){
+        this(compression, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * StreamingEncoder constructor.
+     *
+     * @param compression  object with a <Code>dictionary</Code> that already has its codes built
+     * @param charset      character set of the text
+     */
+
+    public StreamingEncoder(Compression compression, Charset charset){
+        this.encodingTable = new EncodingTable(compression.dictionary);
+        this.charset = charset;
+    }
+
+    /**
+     * Encodes all text from <Code>input</Code> into <Code>output</Code>. Neither stream is closed.
+     *
+     * @param input      text to be encoded
+     * @param output     stream that receives the packed codes
+     * @return           amount of characters encoded
+     * @throws Exception if a letter does not have a code in <Code>dictionary</Code> or reading or writing fails
+     */
+
+    public long encode(InputStream input, OutputStream output) throws Exception{
+        Reader reader = new InputStreamReader(input, charset);
+        BitStreamWriter writer = new BitStreamWriter(output);
+        char[] characters = new char[CHARACTER_BUFFER_SIZE];
+        long symbolCount = 0;
+        int read;
+
+        while((read = reader.read(characters)) != -1){
+            for(int i = 0; i < read; i++){
+                char character = characters[i];
+                // Same filter as "removeNonLetterSymbols(input, "")": keep only letters and make them lower case
+                if(character >= 'A' && character <= 'Z'){
+                    character = (char)(character + ('a' - 'A'));
+                }else if(character < 'a' || character > 'z'){
+                    continue;
+                }
+                encodingTable.writeCode(writer, character);
+                symbolCount++;
+            }
+        }
+
+        writer.finish();
+        return symbolCount;
+    }
+
+    /**
+     * Encodes all text from <Code>input</Code> into <Code>output</Code>. Neither channel is closed.
+     *
+     * @param input      text to be encoded
+     * @param output     channel that receives the packed codes
+     * @return           amount of characters encoded
+     * @throws Exception if a letter does not have a code in <Code>dictionary</Code> or reading or writing fails
+     */
+
+    public long encode(ReadableByteChannel input, WritableByteChannel output) throws Exception{
+        return encode(Channels.newInputStream(input), Channels.newOutputStream(output));
+    }
+}
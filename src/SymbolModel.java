@@ -0,0 +1,215 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * Compact model of an alphabet where every symbol is an <Code>int</Code> from 0 to <Code>size - 1</Code> instead of a
+ * <Code>String</Code> key in a <Code>HashMap</Code>. Frequencies, codes and code lengths are kept in parallel primitive arrays
+ * indexed by the symbol, so encoding and decoding loops do not hash strings, follow pointers or allocate objects.
+ * <p>
+ * A code is stored as a number in <Code>codeBits</Code> whose lowest <Code>codeLengths[symbol]</Code> bits are the code, first bit
+ * being the most significant one. A code length of 0 means that the symbol does not have a code.
+ * <p>
+ * Codes are built with <Code>Huffman.setupHuffmanCodes(SymbolModel)</Code>, <Code>Huffman.setupLengthLimitedHuffmanCodes(SymbolModel, int)</Code>
+ * or <Code>EqualLengthCompression.setupEqualLengthCodes(SymbolModel)</Code>.
+ */
+
+/*
+    File with helper functions
+
+    Programming language: Java
+    Version: Java 1.8
+    Project language level: 7.0
+    Development framework: Intellij IDEA 13.1.5 Community Edition
+
+    Note: if problems appear with "Project language level" check this video on how to
+          change the level: https://www.youtube.com/watch?v=6svfLUxK2nA
+
+          Example of such a problem is "java: strings in switch are not supported in -source 1.5"
+*/
+
+public class SymbolModel{
+    public static final int MAX_SYMBOLS = 1 << 16;
+    public static final int MAX_CODE_LENGTH = 62; // Longest code that keeps "1L << (length + 1)" in "assignCanonicalCodes()" from overflowing
+
+    public int size;
+    public String[] keys; // Text of every symbol. Can be null when symbols are not text, for example bytes
+    public long[] frequencies;
+    public long[] codeBits;
+    public byte[] codeLengths;
+
+    /**
+     * SymbolModel constructor which creates a model with <Code>size</Code> symbols, all with frequency 0 and no code.
+     *
+     * @param size       amount of symbols
+     * @throws Exception if <Code>size</Code> is larger than <Code>MAX_SYMBOLS</Code>
+     */
+
+    public SymbolModel(int size) throws Exception{
+        if(size < 0 || size > MAX_SYMBOLS){
+            throw new Exception("A symbol model can have at most " + MAX_SYMBOLS + " symbols but " + size + " were given");
+        }
+
+        this.size = size;
+        this.frequencies = new long[size];
+        this.codeBits = new long[size];
+        this.codeLengths = new byte[size];
+    }
+
+    /**
+     * Builds a model from the keys and frequencies of a <Code>dictionary</Code>. Symbols are numbered by <Code>leftPosition</Code>,
+     * which for an alphabet read with <Code>setupDictionaryFromFile()</Code> is the order of <Code>originalAlphabetOrder</Code>.
+     * Codes that are already built and are at most <Code>MAX_CODE_LENGTH</Code> long are copied as well.
+     *
+     * @param dictionary keys, frequencies and codes
+     * @return           model with one symbol per key
+     * @throws Exception if <Code>dictionary</Code> has more than <Code>MAX_SYMBOLS</Code> keys
+     */
+
+    public static SymbolModel fromDictionary(HashMap<String, Code> dictionary) throws Exception{
+        ArrayList<Code> entries = new ArrayList<Code>(dictionary.values());
+        Collections.sort(entries, new Comparator<Code>() {
+            @Override
+            public int compare(Code first, Code second) {
+                if(first.leftPosition != second.leftPosition){
+                    return first.leftPosition < second.leftPosition ? -1 : 1;
+                }
+                return first.key.compareTo(second.key);
+            }
+        });
+
+        SymbolModel model = new SymbolModel(entries.size());
+        model.keys = new String[entries.size()];
+        for(int symbol = 0; symbol < entries.size(); symbol++){
+            Code entry = entries.get(symbol);
+            model.keys[symbol] = entry.key;
+            model.frequencies[symbol] = entry.frequency;
+            if(entry.code != null && entry.code.length() > 0 && entry.code.length() <= MAX_CODE_LENGTH){
+                model.codeBits[symbol] = Long.parseLong(entry.code, 2);
+                model.codeLengths[symbol] = (byte)entry.code.length();
+            }
+        }
+
+        return model;
+    }
+
+    /**
+     * Assigns canonical codes from <Code>codeLengths</Code>. Symbols are sorted by code length and then by symbol, the first symbol
+     * gets a code of all "0"s and every next code is the previous code plus one, shifted left when the code length grows.
+     *
+     * @throws Exception if a code is longer than <Code>MAX_CODE_LENGTH</Code> or the code lengths do not form a prefix code
+     */
+
+    public void assignCanonicalCodes() throws Exception{
+        // Count symbols of every length so symbols can be visited by length without sorting
+        int[] lengthCounts = new int[MAX_CODE_LENGTH + 1];
+        for(int symbol = 0; symbol < size; symbol++){
+            if(codeLengths[symbol] < 0 || codeLengths[symbol] > MAX_CODE_LENGTH){
+                throw new Exception("Code of symbol " + symbol + " is longer than " + MAX_CODE_LENGTH + " bits");
+            }
+            lengthCounts[codeLengths[symbol]]++;
+        }
+
+        // "nextCode[length]" is the code of the first symbol of that length
+        long[] nextCode = new long[MAX_CODE_LENGTH + 1];
+        lengthCounts[0] = 0; // Symbols without a code do not take any codes
+        long code = 0;
+        for(int length = 1; length <= MAX_CODE_LENGTH; length++){
+            code = (code + lengthCounts[length - 1]) << 1;
+            nextCode[length] = code;
+            if(code + lengthCounts[length] > (1L << length)){
+                throw new Exception("Code lengths do not form a prefix code");
+            }
+        }
+
+        for(int symbol = 0; symbol < size; symbol++){
+            int length = codeLengths[symbol];
+            codeBits[symbol] = length == 0 ? 0 : nextCode[length]++;
+        }
+    }
+
+    /**
+     * Writes the code of <Code>symbol</Code>.
+     *
+     * @param writer  output
+     * @param symbol  symbol to encode, which must have a code
+     */
+
+    public void writeSymbol(BitStreamWriter writer, int symbol){
+        writer.writeBits(codeBits[symbol], codeLengths[symbol]);
+    }
+
+    /**
+     * Builds a <Code>DecodingTable</Code> that decodes the codes of this model into symbols.
+     *
+     * @return           table for the symbols that have a code
+     * @throws Exception if the codes are not prefix free
+     */
+
+    public DecodingTable buildDecodingTable() throws Exception{
+        return new DecodingTable(codeBits, codeLengths, size);
+    }
+
+    /**
+     * Finds the longest code.
+     *
+     * @return longest code length
+     */
+
+    public int getMaxCodeLength(){
+        int maxCodeLength = 0;
+        for(int symbol = 0; symbol < size; symbol++){
+            maxCodeLength = Math.max(maxCodeLength, codeLengths[symbol]);
+        }
+        return maxCodeLength;
+    }
+
+    /**
+     * Finds the sum of all frequencies.
+     *
+     * @return sum of frequencies
+     */
+
+    public long calculateSumOfFrequencies(){
+        long sumOfFrequencies = 0;
+        for(int symbol = 0; symbol < size; symbol++){
+            sumOfFrequencies += frequencies[symbol];
+        }
+        return sumOfFrequencies;
+    }
+
+    /**
+     * Finds how many bits encoding every symbol as many times as its frequency takes.
+     *
+     * @return sum of frequency * code length
+     */
+
+    public long calculateEncodedBitLength(){
+        long bitLength = 0;
+        for(int symbol = 0; symbol < size; symbol++){
+            bitLength += frequencies[symbol] * codeLengths[symbol];
+        }
+        return bitLength;
+    }
+
+    /**
+     * Finds the entropy of the model: the sum of -p * ( log(p) / log(2) ) over all symbols where p is the probability of the symbol.
+     *
+     * @return entropy in bits per symbol
+     */
+
+    public double calculateEntropy(){
+        double sumOfFrequencies = calculateSumOfFrequencies();
+        double entropy = 0;
+
+        for(int symbol = 0; symbol < size; symbol++){
+            if(frequencies[symbol] > 0){
+                double probability = frequencies[symbol] / sumOfFrequencies;
+                entropy -= probability * (Math.log(probability) / Math.log(2));
+            }
+        }
+
+        return entropy;
+    }
+}